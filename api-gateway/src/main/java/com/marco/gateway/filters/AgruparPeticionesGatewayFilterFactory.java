@@ -0,0 +1,232 @@
+package com.marco.gateway.filters;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Filtro "AgruparPeticiones" (single-flight): los GET idénticos que llegan mientras
+ * otro igual está en curso no se reenvían; esperan la respuesta del primero.
+ *
+ * - Clave: path + query + Accept + Accept-Encoding + alcance de autorización (roles del
+ *   usuario), de modo que solo comparten respuesta peticiones que el servicio respondería igual.
+ * - Como máximo maximo-esperando peticiones esperan a la misma llamada; las demás
+ *   se reenvían por su cuenta.
+ * - Si la llamada original falla, se cancela, supera el plazo o su respuesta es mayor
+ *   que tamano-maximo-respuesta (esta se envía sin retenerla), las que esperaban se
+ *   reenvían por su cuenta.
+ * - Las que esperan reciben el estado, el cuerpo y las cabeceras del contenido de la
+ *   primera; las demás cabeceras (X-RateLimit-* incluidas) son las de su propia petición.
+ * - Métrica gateway.coalescing.requests (resultado=leader|merged|overflow|fallback).
+ */
+@Component
+public class AgruparPeticionesGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AgruparPeticionesGatewayFilterFactory.Config> {
+
+    // Solo se comparten las cabeceras del contenido, como en CacheRespuestas: las demás pueden ser
+    // de la petición original (X-RateLimit-* de su usuario, CORS, Set-Cookie, conexión)
+    private static final List<String> CABECERAS_COMPARTIDAS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+    private final MeterRegistry meterRegistry;
+
+    public AgruparPeticionesGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new Filtro(config, meterRegistry);
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private int maximoEsperando = 1000;
+        private Duration plazo = Duration.ofSeconds(5);
+        private DataSize tamanoMaximoRespuesta = DataSize.ofMegabytes(1);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public int getMaximoEsperando() {
+            return maximoEsperando;
+        }
+
+        public void setMaximoEsperando(int maximoEsperando) {
+            this.maximoEsperando = maximoEsperando;
+        }
+
+        public Duration getPlazo() {
+            return plazo;
+        }
+
+        public void setPlazo(Duration plazo) {
+            this.plazo = plazo;
+        }
+
+        public DataSize getTamanoMaximoRespuesta() {
+            return tamanoMaximoRespuesta;
+        }
+
+        public void setTamanoMaximoRespuesta(DataSize tamanoMaximoRespuesta) {
+            this.tamanoMaximoRespuesta = tamanoMaximoRespuesta;
+        }
+    }
+
+    // Llamada en curso: su resultado y cuántas peticiones lo esperan
+    private static final class Vuelo {
+        private final Sinks.One<RespuestaCapturada> resultado = Sinks.one();
+        private final AtomicInteger esperando = new AtomicInteger();
+    }
+
+    private static final class Filtro implements GatewayFilter {
+
+        private final Config config;
+        private final Map<String, Vuelo> enCurso = new ConcurrentHashMap<>();
+
+        private final Counter lideres;
+        private final Counter agrupadas;
+        private final Counter desbordadas;
+        private final Counter reenviadas;
+
+        Filtro(Config config, MeterRegistry registry) {
+            this.config = config;
+            String ruta = config.getRouteId() != null ? config.getRouteId() : "desconocida";
+            this.lideres = contador(registry, ruta, "leader");
+            this.agrupadas = contador(registry, ruta, "merged");
+            this.desbordadas = contador(registry, ruta, "overflow");
+            this.reenviadas = contador(registry, ruta, "fallback");
+        }
+
+        private static Counter contador(MeterRegistry registry, String ruta, String resultado) {
+            return Counter.builder("gateway.coalescing.requests")
+                    .tag("route", ruta)
+                    .tag("resultado", resultado)
+                    .register(registry);
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+                return chain.filter(exchange);
+            }
+            return exchange.getPrincipal()
+                    .map(Filtro::alcance)
+                    .defaultIfEmpty("anonimo")
+                    .flatMap(alcance -> filtrar(exchange, chain, clave(exchange.getRequest(), alcance)));
+        }
+
+        private Mono<Void> filtrar(ServerWebExchange exchange, GatewayFilterChain chain, String clave) {
+            Vuelo nuevo = new Vuelo();
+            Vuelo existente = enCurso.putIfAbsent(clave, nuevo);
+            if (existente != null) {
+                return esperar(exchange, chain, existente);
+            }
+            lideres.increment();
+            CapturaRespuestaDecorator respuesta = new CapturaRespuestaDecorator(exchange.getResponse(),
+                    config.getTamanoMaximoRespuesta().toBytes(),
+                    (decorador, capturada) -> {
+                        // Se libera la clave antes de escribir: las siguientes peticiones ya hacen su propia llamada
+                        enCurso.remove(clave, nuevo);
+                        nuevo.resultado.tryEmitValue(copiar(capturada));
+                        return decorador.escribir(capturada.cuerpo());
+                    },
+                    () -> {
+                        enCurso.remove(clave, nuevo);
+                        nuevo.resultado.tryEmitError(new IllegalStateException("Respuesta demasiado grande para compartirla"));
+                    });
+            return chain.filter(exchange.mutate().response(respuesta).build())
+                    .doFinally(senal -> {
+                        enCurso.remove(clave, nuevo);
+                        // Sin efecto si ya se emitió la respuesta
+                        nuevo.resultado.tryEmitError(new IllegalStateException("La petición original no obtuvo respuesta"));
+                    });
+        }
+
+        private Mono<Void> esperar(ServerWebExchange exchange, GatewayFilterChain chain, Vuelo vuelo) {
+            if (vuelo.esperando.incrementAndGet() > config.getMaximoEsperando()) {
+                vuelo.esperando.decrementAndGet();
+                desbordadas.increment();
+                return chain.filter(exchange);
+            }
+            return vuelo.resultado.asMono()
+                    .timeout(config.getPlazo())
+                    .doOnNext(r -> agrupadas.increment())
+                    .flatMap(r -> escribir(exchange.getResponse(), r))
+                    .onErrorResume(e -> {
+                        reenviadas.increment();
+                        return chain.filter(exchange);
+                    })
+                    .doFinally(senal -> vuelo.esperando.decrementAndGet());
+        }
+
+        private static Mono<Void> escribir(ServerHttpResponse response, RespuestaCapturada respuesta) {
+            response.setStatusCode(respuesta.status());
+            response.getHeaders().putAll(respuesta.headers());
+            response.getHeaders().setContentLength(respuesta.cuerpo().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(respuesta.cuerpo())));
+        }
+
+        // Copia de la respuesta que se comparte entre peticiones (solo cabeceras del contenido)
+        private static RespuestaCapturada copiar(RespuestaCapturada original) {
+            HttpHeaders headers = new HttpHeaders();
+            CABECERAS_COMPARTIDAS.forEach(nombre -> {
+                List<String> valores = original.headers().get(nombre);
+                if (valores != null) {
+                    headers.put(nombre, List.copyOf(valores));
+                }
+            });
+            return new RespuestaCapturada(original.status(), HttpHeaders.readOnlyHttpHeaders(headers), original.cuerpo());
+        }
+
+        private static String alcance(Principal principal) {
+            if (principal instanceof Authentication autenticacion) {
+                return autenticacion.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .sorted()
+                        .collect(Collectors.joining(","));
+            }
+            return "usuario:" + principal.getName();
+        }
+
+        private static String clave(ServerHttpRequest request, String alcance) {
+            return request.getURI().getRawPath() + "?" + request.getURI().getRawQuery()
+                    + "|" + request.getHeaders().getFirst(HttpHeaders.ACCEPT)
+                    + "|" + request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING)
+                    + "|" + alcance;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.marco.gateway.filters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtro "CacheRespuestas": caché en memoria de las respuestas GET de una ruta.
+ *
+ * - Límite por bytes (capacidad) y TTL; respeta Cache-Control (no-store, private,
+ *   no-cache, max-age) de la respuesta y no-cache/no-store de la petición.
+ * - Usa el ETag del servicio o calcula uno a partir del cuerpo, y responde 304
+ *   cuando el If-None-Match coincide.
+ * - Las respuestas mayores que tamano-maximo-respuesta se envían sin retenerlas en memoria.
+ * - La clave incluye Accept y Accept-Encoding: una respuesta comprimida solo se sirve
+ *   a quien la aceptaría del servicio.
+ * - Cualquier POST/PUT/PATCH/DELETE que pase por la misma ruta vacía la caché;
+ *   una respuesta GET que estaba en vuelo durante la escritura no se guarda.
+ * - Métricas por ruta: gateway.response.cache.requests (resultado=hit|miss|not_modified|bypass),
+ *   gateway.response.cache.bytes.saved, gateway.response.cache.hit.ratio y las de Caffeine.
+ *
+ * Ejemplo en application.yml:
+ * <pre>
+ * filters:
+ *   - name: CacheRespuestas
+ *     args:
+ *       ttl: 30s
+ *       capacidad: 20MB
+ *       tamano-maximo-respuesta: 1MB
+ * </pre>
+ */
+@Component
+public class CacheRespuestasGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CacheRespuestasGatewayFilterFactory.Config> {
+
+    // Cabeceras de la respuesta original que se guardan y se repiten al servir desde la caché
+    private static final List<String> CABECERAS_GUARDADAS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+    private static final String CABECERA_RESULTADO = "X-Cache";
+
+    private final MeterRegistry meterRegistry;
+
+    public CacheRespuestasGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new Filtro(config, meterRegistry);
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private Duration ttl = Duration.ofSeconds(30);
+        private DataSize capacidad = DataSize.ofMegabytes(10);
+        private DataSize tamanoMaximoRespuesta = DataSize.ofMegabytes(1);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public DataSize getCapacidad() {
+            return capacidad;
+        }
+
+        public void setCapacidad(DataSize capacidad) {
+            this.capacidad = capacidad;
+        }
+
+        public DataSize getTamanoMaximoRespuesta() {
+            return tamanoMaximoRespuesta;
+        }
+
+        public void setTamanoMaximoRespuesta(DataSize tamanoMaximoRespuesta) {
+            this.tamanoMaximoRespuesta = tamanoMaximoRespuesta;
+        }
+    }
+
+    private record Entrada(HttpStatusCode status, HttpHeaders headers, byte[] cuerpo, String etag, Duration ttl) {
+    }
+
+    private static final class Filtro implements GatewayFilter {
+
+        private final Config config;
+        private final Cache<String, Entrada> cache;
+        // Se incrementa con cada escritura; una respuesta leída en otra generación ya no se guarda
+        private final AtomicLong generacion = new AtomicLong();
+
+        private final Counter aciertos;
+        private final Counter fallos;
+        private final Counter noModificados;
+        private final Counter omitidos;
+        private final Counter bytesAhorrados;
+
+        Filtro(Config config, MeterRegistry registry) {
+            this.config = config;
+            this.cache = Caffeine.newBuilder()
+                    .maximumWeight(config.getCapacidad().toBytes())
+                    .weigher((String clave, Entrada entrada) -> entrada.cuerpo().length + clave.length())
+                    .expireAfter(new PorEntrada())
+                    .recordStats()
+                    .build();
+
+            String ruta = config.getRouteId() != null ? config.getRouteId() : "desconocida";
+            CaffeineCacheMetrics.monitor(registry, cache, "gateway-" + ruta);
+            Gauge.builder("gateway.response.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                    .tag("route", ruta)
+                    .register(registry);
+            this.aciertos = contador(registry, ruta, "hit");
+            this.fallos = contador(registry, ruta, "miss");
+            this.noModificados = contador(registry, ruta, "not_modified");
+            this.omitidos = contador(registry, ruta, "bypass");
+            this.bytesAhorrados = Counter.builder("gateway.response.cache.bytes.saved")
+                    .baseUnit("bytes")
+                    .tag("route", ruta)
+                    .register(registry);
+        }
+
+        private static Counter contador(MeterRegistry registry, String ruta, String resultado) {
+            return Counter.builder("gateway.response.cache.requests")
+                    .tag("route", ruta)
+                    .tag("resultado", resultado)
+                    .register(registry);
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod metodo = request.getMethod();
+            if (HttpMethod.GET.equals(metodo)) {
+                return leer(exchange, chain);
+            }
+            if (HttpMethod.HEAD.equals(metodo) || HttpMethod.OPTIONS.equals(metodo)) {
+                return chain.filter(exchange);
+            }
+            // Escritura: se invalida al empezar (descarta GET en vuelo) y al terminar
+            invalidar();
+            return chain.filter(exchange).doFinally(senal -> invalidar());
+        }
+
+        private void invalidar() {
+            generacion.incrementAndGet();
+            cache.invalidateAll();
+        }
+
+        private Mono<Void> leer(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            String clave = clave(request);
+            List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+
+            if (!sinCache(request.getHeaders())) {
+                Entrada entrada = cache.getIfPresent(clave);
+                if (entrada != null) {
+                    return servir(exchange.getResponse(), entrada, ifNoneMatch);
+                }
+                fallos.increment();
+            } else {
+                omitidos.increment();
+            }
+
+            long generacionInicial = generacion.get();
+            // El servicio debe devolver el cuerpo completo para poder guardarlo
+            ServerHttpRequest sinCondicionales = request.mutate()
+                    .headers(h -> {
+                        h.remove(HttpHeaders.IF_NONE_MATCH);
+                        h.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                    })
+                    .build();
+            CapturaRespuestaDecorator respuesta = new CapturaRespuestaDecorator(exchange.getResponse(),
+                    config.getTamanoMaximoRespuesta().toBytes(),
+                    (decorador, capturada) -> alRecibir(decorador, capturada, clave, ifNoneMatch, generacionInicial),
+                    () -> exchange.getResponse().getHeaders().set(CABECERA_RESULTADO, "MISS"));
+            return chain.filter(exchange.mutate().request(sinCondicionales).response(respuesta).build());
+        }
+
+        private Mono<Void> alRecibir(CapturaRespuestaDecorator decorador, RespuestaCapturada capturada,
+                String clave, List<String> ifNoneMatch, long generacionInicial) {
+            if (capturada.status() == null || !capturada.status().is2xxSuccessful()) {
+                return decorador.escribir(capturada.cuerpo());
+            }
+            HttpHeaders headers = capturada.headers();
+            String etag = headers.getETag();
+            if (etag == null) {
+                etag = etag(capturada.cuerpo());
+                headers.setETag(etag);
+            }
+            Duration ttl = ttl(headers);
+            if (ttl != null && generacion.get() == generacionInicial) {
+                cache.put(clave, new Entrada(capturada.status(), copiarCabeceras(headers), capturada.cuerpo(), etag, ttl));
+            }
+            headers.set(CABECERA_RESULTADO, "MISS");
+            if (coincide(ifNoneMatch, etag)) {
+                decorador.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return decorador.sinCuerpo();
+            }
+            return decorador.escribir(capturada.cuerpo());
+        }
+
+        private Mono<Void> servir(ServerHttpResponse response, Entrada entrada, List<String> ifNoneMatch) {
+            response.getHeaders().putAll(entrada.headers());
+            response.getHeaders().set(CABECERA_RESULTADO, "HIT");
+            bytesAhorrados.increment(entrada.cuerpo().length);
+            if (coincide(ifNoneMatch, entrada.etag())) {
+                noModificados.increment();
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.setComplete();
+            }
+            aciertos.increment();
+            response.setStatusCode(entrada.status());
+            response.getHeaders().setContentLength(entrada.cuerpo().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(entrada.cuerpo())));
+        }
+
+        /**
+         * TTL para guardar la respuesta según su Cache-Control; null si no se puede guardar.
+         */
+        private Duration ttl(HttpHeaders headers) {
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl == null) {
+                return config.getTtl();
+            }
+            Duration ttl = config.getTtl();
+            for (String directiva : cacheControl.toLowerCase().split(",")) {
+                directiva = directiva.trim();
+                if (directiva.equals("no-store") || directiva.equals("private") || directiva.equals("no-cache")) {
+                    return null;
+                }
+                if (directiva.startsWith("max-age=")) {
+                    try {
+                        Duration maxAge = Duration.ofSeconds(Long.parseLong(directiva.substring("max-age=".length())));
+                        ttl = maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+            return ttl.isZero() || ttl.isNegative() ? null : ttl;
+        }
+
+        private static boolean sinCache(HttpHeaders headers) {
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null) {
+                String valor = cacheControl.toLowerCase();
+                if (valor.contains("no-cache") || valor.contains("no-store")) {
+                    return true;
+                }
+            }
+            return headers.getOrEmpty(HttpHeaders.PRAGMA).stream().anyMatch(p -> p.contains("no-cache"));
+        }
+
+        // La misma URL con distinto Accept o Accept-Encoding puede devolver otra representación
+        private static String clave(ServerHttpRequest request) {
+            return request.getURI().getRawPath() + "?" + request.getURI().getRawQuery()
+                    + "|" + request.getHeaders().getFirst(HttpHeaders.ACCEPT)
+                    + "|" + request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        // Comparación débil (RFC 9110): se ignora el prefijo W/
+        private static boolean coincide(List<String> ifNoneMatch, String etag) {
+            if (ifNoneMatch.isEmpty() || etag == null) {
+                return false;
+            }
+            String propio = sinPrefijoDebil(etag);
+            return ifNoneMatch.stream()
+                    .flatMap(valor -> Arrays.stream(valor.split(",")))
+                    .map(String::trim)
+                    .anyMatch(candidato -> candidato.equals("*") || sinPrefijoDebil(candidato).equals(propio));
+        }
+
+        private static String sinPrefijoDebil(String etag) {
+            return etag.startsWith("W/") ? etag.substring(2) : etag;
+        }
+
+        private static String etag(byte[] cuerpo) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(cuerpo);
+                return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no disponible", e);
+            }
+        }
+
+        private static HttpHeaders copiarCabeceras(HttpHeaders origen) {
+            HttpHeaders copia = new HttpHeaders();
+            CABECERAS_GUARDADAS.forEach(nombre -> {
+                List<String> valores = origen.get(nombre);
+                if (valores != null) {
+                    copia.put(nombre, List.copyOf(valores));
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(copia);
+        }
+    }
+
+    // Cada entrada vive su propio TTL (el menor entre el configurado y el max-age de la respuesta)
+    private static final class PorEntrada implements Expiry<String, Entrada> {
+
+        @Override
+        public long expireAfterCreate(String clave, Entrada entrada, long tiempoActual) {
+            return entrada.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, Entrada entrada, long tiempoActual, long duracionActual) {
+            return entrada.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String clave, Entrada entrada, long tiempoActual, long duracionActual) {
+            return duracionActual;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.marco.gateway.filters;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decora la respuesta para leer el cuerpo completo antes de enviarlo al cliente.
+ *
+ * Al terminar de leerlo se invoca el callback, que decide qué enviar usando
+ * {@link #escribir(byte[])} o {@link #sinCuerpo()}. Las respuestas en streaming
+ * (writeAndFlushWith, p. ej. SSE) no se capturan.
+ *
+ * Como mucho se retienen maximoBytes (más el buffer que los supera): si el cuerpo
+ * es mayor, se avisa con alDesbordar y se envía tal cual, sin capturarlo.
+ */
+public class CapturaRespuestaDecorator extends ServerHttpResponseDecorator {
+
+    private final long maximoBytes;
+    private final BiFunction<CapturaRespuestaDecorator, RespuestaCapturada, Mono<Void>> alCapturar;
+    private final Runnable alDesbordar;
+
+    public CapturaRespuestaDecorator(ServerHttpResponse delegado, long maximoBytes,
+            BiFunction<CapturaRespuestaDecorator, RespuestaCapturada, Mono<Void>> alCapturar,
+            Runnable alDesbordar) {
+        super(delegado);
+        this.maximoBytes = maximoBytes;
+        this.alCapturar = alCapturar;
+        this.alDesbordar = alDesbordar;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        AtomicLong leidos = new AtomicLong();
+        // El primer bloque es el cuerpo entero si cabe, o lo leído hasta superar el límite;
+        // a partir de ahí cada buffer llega en su propio bloque
+        return Flux.from(body)
+                .map(DataBuffer.class::cast)
+                .bufferUntil(buffer -> leidos.addAndGet(buffer.readableByteCount()) > maximoBytes)
+                .switchOnFirst((primero, bloques) -> {
+                    if (primero.hasValue() && leidos.get() > maximoBytes) {
+                        alDesbordar.run();
+                        return getDelegate().writeWith(bloques.concatMapIterable(Function.identity()));
+                    }
+                    return bloques.next()
+                            .map(CapturaRespuestaDecorator::leer)
+                            .defaultIfEmpty(new byte[0])
+                            .flatMap(bytes -> alCapturar.apply(this,
+                                    new RespuestaCapturada(getStatusCode(), getHeaders(), bytes)));
+                })
+                .then();
+    }
+
+    private static byte[] leer(List<DataBuffer> buffers) {
+        int total = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+        byte[] bytes = new byte[total];
+        int posicion = 0;
+        for (DataBuffer buffer : buffers) {
+            int longitud = buffer.readableByteCount();
+            buffer.read(bytes, posicion, longitud);
+            posicion += longitud;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+
+    /**
+     * Envía el cuerpo indicado al cliente.
+     */
+    public Mono<Void> escribir(byte[] cuerpo) {
+        getDelegate().getHeaders().setContentLength(cuerpo.length);
+        return getDelegate().writeWith(Mono.just(getDelegate().bufferFactory().wrap(cuerpo)));
+    }
+
+    /**
+     * Termina la respuesta sin cuerpo (p. ej. 304).
+     */
+    public Mono<Void> sinCuerpo() {
+        getDelegate().getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        return getDelegate().setComplete();
+    }
+}
@@ -0,0 +1,14 @@
+package com.marco.gateway.filters;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Respuesta del servicio destino ya leída completa en memoria.
+ *
+ * @param status  código HTTP devuelto por el servicio
+ * @param headers cabeceras de la respuesta (aún modificables: no se han enviado)
+ * @param cuerpo  cuerpo completo
+ */
+public record RespuestaCapturada(HttpStatusCode status, HttpHeaders headers, byte[] cuerpo) {
+}
@@ -0,0 +1,20 @@
+package com.marco.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Dónde viven las cubetas de tokens del rate limiter.
+ *
+ * La implementación por defecto ({@link AlmacenCubetasEnMemoria}) es local a cada
+ * réplica del gateway; para compartir el límite entre réplicas basta con registrar
+ * otro bean de este tipo (p. ej. respaldado por Redis). Es reactiva para que esa
+ * implementación remota no bloquee los hilos de Netty.
+ */
+public interface AlmacenCubetas {
+
+    /**
+     * Intenta consumir tokens de la cubeta identificada por la clave; si no existe
+     * se crea llena con el límite indicado.
+     */
+    Mono<ResultadoConsumo> consumir(String clave, LimiteCubeta limite, int tokens);
+}
@@ -0,0 +1,150 @@
+package com.marco.gateway.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cubetas de tokens en memoria, sin bloqueos.
+ *
+ * - Cada cubeta guarda su estado (tokens, instante de la última recarga) en un
+ *   AtomicReference y se actualiza con compare-and-set.
+ * - Las cubetas se reparten en franjas (varios ConcurrentHashMap) para que la
+ *   limpieza recorra una franja cada vez sin afectar al resto.
+ * - {@link #limpiar()} elimina las cubetas sin uso durante "inactividad" que ya
+ *   estarían llenas: recrearlas más tarde no regala tokens.
+ */
+public class AlmacenCubetasEnMemoria implements AlmacenCubetas {
+
+    private static final Logger LOGGER = Logger.getLogger(AlmacenCubetasEnMemoria.class.getName());
+
+    private final Map<String, Cubeta>[] franjas;
+    private final Duration inactividad;
+    // Reloj en nanosegundos; sustituible en pruebas
+    private final LongSupplier reloj;
+    private volatile Disposable limpieza;
+
+    public AlmacenCubetasEnMemoria(int numeroFranjas, Duration inactividad) {
+        this(numeroFranjas, inactividad, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    AlmacenCubetasEnMemoria(int numeroFranjas, Duration inactividad, LongSupplier reloj) {
+        int tamano = Integer.highestOneBit(Math.max(1, numeroFranjas - 1) << 1);
+        this.franjas = new Map[tamano];
+        for (int i = 0; i < tamano; i++) {
+            franjas[i] = new ConcurrentHashMap<>();
+        }
+        this.inactividad = inactividad;
+        this.reloj = reloj;
+    }
+
+    @Override
+    public Mono<ResultadoConsumo> consumir(String clave, LimiteCubeta limite, int tokens) {
+        return Mono.fromSupplier(() -> consumirAhora(clave, limite, tokens));
+    }
+
+    ResultadoConsumo consumirAhora(String clave, LimiteCubeta limite, int tokens) {
+        long ahora = reloj.getAsLong();
+        Cubeta cubeta = franja(clave).computeIfAbsent(clave, k -> new Cubeta(limite.capacidad(), ahora));
+        return cubeta.consumir(limite, tokens, ahora);
+    }
+
+    /**
+     * Programa {@link #limpiar()} cada intervalo en segundo plano.
+     */
+    public void iniciarLimpieza(Duration intervalo) {
+        limpieza = Flux.interval(intervalo, intervalo)
+                .map(tick -> limpiar())
+                .filter(eliminadas -> eliminadas > 0)
+                .subscribe(eliminadas -> LOGGER.fine("Cubetas inactivas eliminadas: " + eliminadas));
+    }
+
+    public void detenerLimpieza() {
+        if (limpieza != null) {
+            limpieza.dispose();
+        }
+    }
+
+    /**
+     * Elimina las cubetas inactivas; se invoca periódicamente.
+     * @return número de cubetas eliminadas
+     */
+    public int limpiar() {
+        long ahora = reloj.getAsLong();
+        int eliminadas = 0;
+        for (Map<String, Cubeta> franja : franjas) {
+            for (Map.Entry<String, Cubeta> entrada : franja.entrySet()) {
+                if (entrada.getValue().inactiva(ahora, inactividad.toNanos())
+                        && franja.remove(entrada.getKey(), entrada.getValue())) {
+                    eliminadas++;
+                }
+            }
+        }
+        return eliminadas;
+    }
+
+    public int tamano() {
+        int total = 0;
+        for (Map<String, Cubeta> franja : franjas) {
+            total += franja.size();
+        }
+        return total;
+    }
+
+    private Map<String, Cubeta> franja(String clave) {
+        int h = clave.hashCode();
+        h ^= (h >>> 16);
+        return franjas[h & (franjas.length - 1)];
+    }
+
+    private record Estado(double tokens, long instante) {
+    }
+
+    static final class Cubeta {
+
+        private final AtomicReference<Estado> estado;
+        private volatile LimiteCubeta ultimoLimite;
+
+        Cubeta(int capacidad, long ahora) {
+            this.estado = new AtomicReference<>(new Estado(capacidad, ahora));
+        }
+
+        ResultadoConsumo consumir(LimiteCubeta limite, int tokens, long ahora) {
+            ultimoLimite = limite;
+            while (true) {
+                Estado actual = estado.get();
+                double disponibles = disponibles(actual, limite, ahora);
+                if (disponibles < tokens) {
+                    double faltan = tokens - disponibles;
+                    long espera = (long) Math.ceil(faltan / limite.recargaPorSegundo() * 1_000_000_000L);
+                    return new ResultadoConsumo(false, (long) disponibles, Duration.ofNanos(espera));
+                }
+                Estado nuevo = new Estado(disponibles - tokens, Math.max(ahora, actual.instante()));
+                if (estado.compareAndSet(actual, nuevo)) {
+                    return new ResultadoConsumo(true, (long) nuevo.tokens(), Duration.ZERO);
+                }
+            }
+        }
+
+        boolean inactiva(long ahora, long inactividadNanos) {
+            Estado actual = estado.get();
+            LimiteCubeta limite = ultimoLimite;
+            return ahora - actual.instante() >= inactividadNanos
+                    && (limite == null || disponibles(actual, limite, ahora) >= limite.capacidad());
+        }
+
+        private static double disponibles(Estado estado, LimiteCubeta limite, long ahora) {
+            long transcurrido = Math.max(0, ahora - estado.instante());
+            double repuestos = transcurrido / 1_000_000_000d * limite.recargaPorSegundo();
+            return Math.min(limite.capacidad(), estado.tokens() + repuestos);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.marco.gateway.ratelimit;
+
+/**
+ * Parámetros de una cubeta de tokens.
+ *
+ * @param capacidad         tokens máximos acumulables (ráfaga permitida)
+ * @param recargaPorSegundo tokens que se reponen por segundo (ritmo sostenido)
+ */
+public record LimiteCubeta(int capacidad, double recargaPorSegundo) {
+}
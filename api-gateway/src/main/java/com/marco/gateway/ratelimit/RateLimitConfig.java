@@ -0,0 +1,57 @@
+package com.marco.gateway.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Beans del rate limiter usados por el filtro RequestRateLimiter de cada ruta
+ * (ver application.yml: rate-limiter "#{@tokenBucketRateLimiter}", key-resolver "#{@usuarioKeyResolver}").
+ */
+@Configuration
+public class RateLimitConfig {
+
+    // Almacén local por defecto; otro bean AlmacenCubetas (compartido entre réplicas) lo reemplaza
+    @Bean(destroyMethod = "detenerLimpieza")
+    @ConditionalOnMissingBean(AlmacenCubetas.class)
+    AlmacenCubetasEnMemoria almacenCubetas(
+            @Value("${gateway.rate-limit.franjas:16}") int franjas,
+            @Value("${gateway.rate-limit.inactividad:10m}") Duration inactividad,
+            @Value("${gateway.rate-limit.limpieza:1m}") Duration intervaloLimpieza) {
+        AlmacenCubetasEnMemoria almacen = new AlmacenCubetasEnMemoria(franjas, inactividad);
+        almacen.iniciarLimpieza(intervaloLimpieza);
+        return almacen;
+    }
+
+    @Bean
+    TokenBucketRateLimiter tokenBucketRateLimiter(AlmacenCubetas almacen, ConfigurationService configurationService,
+            @Value("${gateway.rate-limit.capacidad:20}") int capacidad,
+            @Value("${gateway.rate-limit.recarga-por-segundo:10}") double recargaPorSegundo) {
+        TokenBucketRateLimiter.Config porDefecto = new TokenBucketRateLimiter.Config()
+                .setCapacidad(capacidad)
+                .setRecargaPorSegundo(recargaPorSegundo);
+        return new TokenBucketRateLimiter(almacen, configurationService, porDefecto);
+    }
+
+    /**
+     * Clave del límite: el "sub" del JWT; sin autenticación, la IP de origen.
+     */
+    @Bean
+    KeyResolver usuarioKeyResolver() {
+        return exchange -> exchange.getPrincipal()
+                .map(principal -> principal instanceof JwtAuthenticationToken jwt
+                        ? "sub:" + jwt.getToken().getSubject()
+                        : "usuario:" + principal.getName())
+                .switchIfEmpty(Mono.fromSupplier(() -> exchange.getRequest().getRemoteAddress() != null
+                        ? "ip:" + exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
+                        : "anonimo"));
+    }
+}
@@ -0,0 +1,13 @@
+package com.marco.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Resultado de intentar consumir tokens de una cubeta.
+ *
+ * @param permitido    si se pudieron consumir
+ * @param restantes    tokens enteros que quedan tras el consumo
+ * @param reintentarEn tiempo hasta que haya tokens suficientes (cero si se permitió)
+ */
+public record ResultadoConsumo(boolean permitido, long restantes, Duration reintentarEn) {
+}
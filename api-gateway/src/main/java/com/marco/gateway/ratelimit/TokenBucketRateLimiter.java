@@ -0,0 +1,96 @@
+package com.marco.gateway.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * RateLimiter de cubeta de tokens para el filtro RequestRateLimiter.
+ *
+ * La cubeta se identifica por ruta + clave del KeyResolver (el "sub" del JWT), así
+ * cada usuario tiene su propio límite en cada ruta. Los parámetros se leen de los
+ * args de la ruta con el prefijo "token-bucket-rate-limiter"; las rutas sin args
+ * usan los valores por defecto.
+ */
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+
+    private static final Logger LOGGER = Logger.getLogger(TokenBucketRateLimiter.class.getName());
+
+    private final AlmacenCubetas almacen;
+    private final Config porDefecto;
+
+    public TokenBucketRateLimiter(AlmacenCubetas almacen, ConfigurationService configurationService, Config porDefecto) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.almacen = almacen;
+        this.porDefecto = porDefecto;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, porDefecto);
+        LimiteCubeta limite = new LimiteCubeta(config.getCapacidad(), config.getRecargaPorSegundo());
+        return almacen.consumir(routeId + ":" + id, limite, config.getTokensPorPeticion())
+                .map(resultado -> new Response(resultado.permitido(), cabeceras(config, resultado)))
+                // Si el almacén falla (p. ej. uno remoto caído) se deja pasar la petición
+                .onErrorResume(e -> {
+                    LOGGER.log(Level.WARNING, "Rate limiter no disponible, se permite la petición: " + e.getMessage());
+                    return Mono.just(new Response(true, Map.of()));
+                });
+    }
+
+    private static Map<String, String> cabeceras(Config config, ResultadoConsumo resultado) {
+        Map<String, String> cabeceras = new LinkedHashMap<>();
+        cabeceras.put("X-RateLimit-Remaining", String.valueOf(resultado.restantes()));
+        cabeceras.put("X-RateLimit-Burst-Capacity", String.valueOf(config.getCapacidad()));
+        cabeceras.put("X-RateLimit-Replenish-Rate", String.valueOf(config.getRecargaPorSegundo()));
+        if (!resultado.permitido()) {
+            // Retry-After en segundos enteros, redondeando hacia arriba
+            long segundos = Math.max(1, (resultado.reintentarEn().toMillis() + 999) / 1000);
+            cabeceras.put(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        }
+        return cabeceras;
+    }
+
+    public static class Config {
+
+        private int capacidad = 20;
+        private double recargaPorSegundo = 10;
+        private int tokensPorPeticion = 1;
+
+        public int getCapacidad() {
+            return capacidad;
+        }
+
+        public Config setCapacidad(int capacidad) {
+            this.capacidad = capacidad;
+            return this;
+        }
+
+        public double getRecargaPorSegundo() {
+            return recargaPorSegundo;
+        }
+
+        public Config setRecargaPorSegundo(double recargaPorSegundo) {
+            this.recargaPorSegundo = recargaPorSegundo;
+            return this;
+        }
+
+        public int getTokensPorPeticion() {
+            return tokensPorPeticion;
+        }
+
+        public Config setTokensPorPeticion(int tokensPorPeticion) {
+            this.tokensPorPeticion = tokensPorPeticion;
+            return this;
+        }
+    }
+}
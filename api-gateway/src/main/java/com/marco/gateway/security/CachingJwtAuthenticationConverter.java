@@ -0,0 +1,40 @@
+package com.marco.gateway.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Recuerda la autenticación (roles ya convertidos) de cada Jwt.
+ *
+ * CachingReactiveJwtDecoder devuelve la misma instancia de Jwt para un token repetido,
+ * así que la caché usa claves débiles (comparación por identidad): la entrada vive
+ * lo mismo que el Jwt en la caché del decoder y no hace falta volver a calcular el hash.
+ */
+public class CachingJwtAuthenticationConverter implements Converter<Jwt, Mono<AbstractAuthenticationToken>> {
+
+    private final Converter<Jwt, Mono<AbstractAuthenticationToken>> delegado;
+    private final Cache<Jwt, AbstractAuthenticationToken> cache;
+
+    public CachingJwtAuthenticationConverter(Converter<Jwt, Mono<AbstractAuthenticationToken>> delegado, long tamanoMaximo) {
+        this.delegado = delegado;
+        this.cache = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(tamanoMaximo)
+                .build();
+    }
+
+    @Override
+    public Mono<AbstractAuthenticationToken> convert(Jwt jwt) {
+        AbstractAuthenticationToken cacheado = cache.getIfPresent(jwt);
+        if (cacheado != null) {
+            return Mono.just(cacheado);
+        }
+        return delegado.convert(jwt).doOnNext(autenticacion -> cache.put(jwt, autenticacion));
+    }
+}
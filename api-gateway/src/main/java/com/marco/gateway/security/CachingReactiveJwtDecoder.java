@@ -0,0 +1,92 @@
+package com.marco.gateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Decoder que recuerda los tokens ya verificados.
+ *
+ * - La clave es el SHA-256 del token (no se guarda el token en claro como clave).
+ * - Cada entrada caduca en el "exp" del token (o en ttlMaximo si llega antes),
+ *   por lo que un token vencido nunca se sirve desde la caché.
+ * - Solo se guardan tokens válidos: los errores siempre pasan por el decoder real.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegado;
+    private final Cache<String, Jwt> cache;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegado, long tamanoMaximo, Duration ttlMaximo) {
+        this.delegado = delegado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfter(new HastaExpiracion(ttlMaximo))
+                .build();
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        String clave = hash(token);
+        Jwt cacheado = cache.getIfPresent(clave);
+        if (cacheado != null) {
+            return Mono.just(cacheado);
+        }
+        return delegado.decode(token).doOnNext(jwt -> cache.put(clave, jwt));
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    // Vida de cada entrada: hasta el exp del token, acotada por ttlMaximo
+    private static final class HastaExpiracion implements Expiry<String, Jwt> {
+
+        private final Duration ttlMaximo;
+
+        HastaExpiracion(Duration ttlMaximo) {
+            this.ttlMaximo = ttlMaximo;
+        }
+
+        @Override
+        public long expireAfterCreate(String clave, Jwt jwt, long tiempoActual) {
+            Instant expiracion = jwt.getExpiresAt();
+            if (expiracion == null) {
+                return ttlMaximo.toNanos();
+            }
+            Duration restante = Duration.between(Instant.now(), expiracion);
+            if (restante.isNegative()) {
+                return 0;
+            }
+            return Math.min(restante.toNanos(), ttlMaximo.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, Jwt jwt, long tiempoActual, long duracionActual) {
+            return expireAfterCreate(clave, jwt, tiempoActual);
+        }
+
+        @Override
+        public long expireAfterRead(String clave, Jwt jwt, long tiempoActual, long duracionActual) {
+            return duracionActual;
+        }
+    }
+}
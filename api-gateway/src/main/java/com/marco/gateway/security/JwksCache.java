@@ -0,0 +1,130 @@
+package com.marco.gateway.security;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Copia local del JWK set del servidor de autorización.
+ *
+ * - Se descarga al arrancar y se refresca en segundo plano cada gateway.jwks.refresco,
+ *   de modo que ninguna petición espera a la descarga de las claves.
+ * - Si llega un token con un kid desconocido (rotación de claves) se fuerza una
+ *   recarga, como mucho una cada gateway.jwks.intervalo-minimo; las peticiones
+ *   concurrentes comparten esa misma recarga.
+ * - Las que no lanzan la recarga esperan a que termine y leen el JWK set vigente en ese
+ *   momento, no el que descargó aquella recarga (el refresco periódico pudo ser posterior).
+ */
+@Component
+public class JwksCache {
+
+    private static final Logger LOGGER = Logger.getLogger(JwksCache.class.getName());
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final Duration refresco;
+    private final Duration intervaloMinimo;
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    // Inicio y descarga se publican juntos: quien ve el inicio ve también su recarga
+    private final AtomicReference<Recarga> ultimaRecarga =
+            new AtomicReference<>(new Recarga(Instant.EPOCH, Mono.empty()));
+    private Disposable tareaRefresco;
+
+    public JwksCache(WebClient.Builder webClientBuilder,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${gateway.jwks.refresco:5m}") Duration refresco,
+            @Value("${gateway.jwks.intervalo-minimo:30s}") Duration intervaloMinimo) {
+        this.webClient = webClientBuilder.build();
+        this.jwkSetUri = jwkSetUri;
+        this.refresco = refresco;
+        this.intervaloMinimo = intervaloMinimo;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        tareaRefresco = Flux.interval(Duration.ZERO, refresco)
+                .concatMap(tick -> descargar())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void detener() {
+        if (tareaRefresco != null) {
+            tareaRefresco.dispose();
+        }
+    }
+
+    /**
+     * Claves que pueden verificar el token (según kid/alg de su cabecera).
+     * Se usa como fuente de claves de NimbusReactiveJwtDecoder.
+     */
+    public Flux<JWK> claves(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        List<JWK> claves = selector.select(jwkSet);
+        if (!claves.isEmpty()) {
+            return Flux.fromIterable(claves);
+        }
+        return recargar().flatMapIterable(selector::select);
+    }
+
+    private Mono<JWKSet> recargar() {
+        Recarga anterior = ultimaRecarga.get();
+        Instant ahora = Instant.now();
+        if (Duration.between(anterior.inicio(), ahora).compareTo(intervaloMinimo) < 0) {
+            return anterior.despues(() -> jwkSet);
+        }
+        // cache() no se suscribe todavía: si se pierde el CAS no se descarga nada
+        Recarga recarga = new Recarga(ahora, descargar().cache());
+        Recarga actual = ultimaRecarga.compareAndExchange(anterior, recarga);
+        return (actual == anterior ? recarga : actual).despues(() -> jwkSet);
+    }
+
+    // Ante un error se conserva el último JWK set válido
+    private Mono<JWKSet> descargar() {
+        return webClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .<JWKSet>handle((json, sink) -> {
+                    try {
+                        sink.next(JWKSet.parse(json));
+                    } catch (ParseException e) {
+                        sink.error(e);
+                    }
+                })
+                .doOnNext(set -> jwkSet = set)
+                .onErrorResume(e -> {
+                    LOGGER.log(Level.WARNING, "No se pudo descargar el JWK set de " + jwkSetUri + ": " + e.getMessage());
+                    return Mono.just(jwkSet);
+                });
+    }
+
+    private record Recarga(Instant inicio, Mono<JWKSet> descarga) {
+
+        Mono<JWKSet> despues(Supplier<JWKSet> vigente) {
+            return descarga.then(Mono.fromSupplier(vigente));
+        }
+    }
+}
@@ -1,22 +1,41 @@
 package com.marco.gateway.security;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 
+import reactor.core.publisher.Mono;
+
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {	
 
+    // Número máximo de tokens verificados que se recuerdan (decoder y conversión de roles)
+    @Value("${gateway.jwt.cache.tamano-maximo:10000}")
+    private long tamanoCacheJwt;
+
+    // Tope de vida de una entrada aunque el exp del token sea posterior
+    @Value("${gateway.jwt.cache.ttl-maximo:10m}")
+    private Duration ttlMaximoCacheJwt;
+
     @Bean
     SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
     	http.csrf(csrf -> csrf.disable())
@@ -29,6 +48,10 @@ public class SecurityConfig {
     				return config;
     			})).authorizeExchange(ex -> ex
     		            .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+    		            // Sondas y Prometheus, en el puerto de management
+    		            .matchers(EndpointRequest.to("health", "prometheus")).permitAll()
+    		            // Reservas de stock: solo msv-pedidos, llamando directamente a msv-productos
+    		            .pathMatchers("/api/productos/stock/**").denyAll()
     		            .pathMatchers(HttpMethod.GET, "/**").hasAnyRole("ADMIN", "USER")//
     		            .pathMatchers(HttpMethod.POST, "/**").hasAnyRole("ADMIN", "USER")//permitAll()//
     		            .pathMatchers(HttpMethod.PUT, "/**").hasRole("ADMIN")//permitAll() //
@@ -41,8 +64,22 @@ public class SecurityConfig {
     	return http.build();
     }
     
+    /**
+     * Decoder con las claves del JwksCache (sin descargas en el camino de la petición)
+     * y con caché de tokens ya verificados.
+     */
+    @Bean
+    ReactiveJwtDecoder jwtDecoder(JwksCache jwksCache) {
+        // El authorization-server firma con RS256 o ES256 según auth.jwt.algoritmo
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSource(jwksCache::claves)
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .jwsAlgorithm(SignatureAlgorithm.ES256)
+                .build();
+        return new CachingReactiveJwtDecoder(decoder, tamanoCacheJwt, ttlMaximoCacheJwt);
+    }
+
     @Bean
-    ReactiveJwtAuthenticationConverterAdapter reactiveJwtAuthenticationConverter() {
+    Converter<Jwt, Mono<AbstractAuthenticationToken>> reactiveJwtAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
         authoritiesConverter.setAuthoritiesClaimName("roles");
         authoritiesConverter.setAuthorityPrefix("");
@@ -50,6 +87,7 @@ public class SecurityConfig {
         JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
         jwtConverter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
 
-        return new ReactiveJwtAuthenticationConverterAdapter(jwtConverter);
+        return new CachingJwtAuthenticationConverter(
+                new ReactiveJwtAuthenticationConverterAdapter(jwtConverter), tamanoCacheJwt);
     }
 }
\ No newline at end of file
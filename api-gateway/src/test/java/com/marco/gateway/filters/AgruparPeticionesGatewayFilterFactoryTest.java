@@ -0,0 +1,161 @@
+package com.marco.gateway.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Agrupación de GET idénticos: la primera petición queda retenida en el servicio simulado
+ * hasta que la prueba la libera, mientras llegan las demás.
+ */
+class AgruparPeticionesGatewayFilterFactoryTest {
+
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private final Sinks.Empty<Void> barrera = Sinks.empty();
+
+    @Test
+    void lasQueEsperanRecibenLaRespuestaDeLaPrimera() throws Exception {
+        GatewayFilter filtro = filtro(10, DataSize.ofKilobytes(1));
+        MockServerWebExchange lider = intercambio();
+        CompletableFuture<Void> primera = filtro.filter(lider, retenido(servicio("lider"))).toFuture();
+        MockServerWebExchange seguidor1 = intercambio();
+        MockServerWebExchange seguidor2 = intercambio();
+        CompletableFuture<Void> segunda = filtro.filter(seguidor1, servicio("propia")).toFuture();
+        CompletableFuture<Void> tercera = filtro.filter(seguidor2, servicio("propia")).toFuture();
+
+        barrera.tryEmitEmpty();
+        CompletableFuture.allOf(primera, segunda, tercera).get(5, TimeUnit.SECONDS);
+
+        assertEquals("lider", cuerpo(lider));
+        assertEquals("lider", cuerpo(seguidor1));
+        assertEquals("lider", cuerpo(seguidor2));
+        assertEquals(HttpStatus.OK, seguidor1.getResponse().getStatusCode());
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void noSeCompartenLasCabecerasDeLaPeticionOriginal() throws Exception {
+        GatewayFilter filtro = filtro(10, DataSize.ofKilobytes(1));
+        MockServerWebExchange lider = intercambio();
+        lider.getResponse().getHeaders().set("X-RateLimit-Remaining", "3");
+        GatewayFilterChain conCabeceras = exchange -> {
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().set("X-Upstream", "msv-productos");
+            return servicio("lider").filter(exchange);
+        };
+        CompletableFuture<Void> primera = filtro.filter(lider, retenido(conCabeceras)).toFuture();
+        MockServerWebExchange esperando = intercambio();
+        // Lo que RequestRateLimiter ya escribió para el segundo usuario
+        esperando.getResponse().getHeaders().set("X-RateLimit-Remaining", "9");
+        CompletableFuture<Void> segunda = filtro.filter(esperando, servicio("propia")).toFuture();
+
+        barrera.tryEmitEmpty();
+        CompletableFuture.allOf(primera, segunda).get(5, TimeUnit.SECONDS);
+
+        HttpHeaders cabeceras = esperando.getResponse().getHeaders();
+        assertEquals("lider", cuerpo(esperando));
+        assertEquals(MediaType.APPLICATION_JSON, cabeceras.getContentType());
+        assertEquals("9", cabeceras.getFirst("X-RateLimit-Remaining"));
+        assertNull(cabeceras.getFirst("X-Upstream"));
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void lasQueNoCabenSeEnvianPorSuCuenta() throws Exception {
+        GatewayFilter filtro = filtro(1, DataSize.ofKilobytes(1));
+        CompletableFuture<Void> primera = filtro.filter(intercambio(), retenido(servicio("lider"))).toFuture();
+        MockServerWebExchange esperando = intercambio();
+        CompletableFuture<Void> segunda = filtro.filter(esperando, servicio("propia")).toFuture();
+
+        MockServerWebExchange desbordada = intercambio();
+        filtro.filter(desbordada, servicio("propia")).block(Duration.ofSeconds(5));
+        assertEquals("propia", cuerpo(desbordada));
+
+        barrera.tryEmitEmpty();
+        CompletableFuture.allOf(primera, segunda).get(5, TimeUnit.SECONDS);
+        assertEquals("lider", cuerpo(esperando));
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void siLaPrimeraFallaLasDemasSeEnvianPorSuCuenta() throws Exception {
+        GatewayFilter filtro = filtro(10, DataSize.ofKilobytes(1));
+        GatewayFilterChain fallido = exchange -> barrera.asMono().then(Mono.error(new IllegalStateException("Connection reset")));
+        CompletableFuture<Void> primera = filtro.filter(intercambio(), fallido).toFuture();
+        MockServerWebExchange esperando = intercambio();
+        CompletableFuture<Void> segunda = filtro.filter(esperando, servicio("propia")).toFuture();
+
+        barrera.tryEmitEmpty();
+        segunda.get(5, TimeUnit.SECONDS);
+
+        assertThrows(ExecutionException.class, () -> primera.get(5, TimeUnit.SECONDS));
+        assertEquals("propia", cuerpo(esperando));
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void unaRespuestaDemasiadoGrandeNoSeComparte() throws Exception {
+        GatewayFilter filtro = filtro(10, DataSize.ofBytes(3));
+        MockServerWebExchange lider = intercambio();
+        CompletableFuture<Void> primera = filtro.filter(lider, retenido(servicio("lider"))).toFuture();
+        MockServerWebExchange esperando = intercambio();
+        CompletableFuture<Void> segunda = filtro.filter(esperando, servicio("propia")).toFuture();
+
+        barrera.tryEmitEmpty();
+        CompletableFuture.allOf(primera, segunda).get(5, TimeUnit.SECONDS);
+
+        assertEquals("lider", cuerpo(lider));
+        assertEquals("propia", cuerpo(esperando));
+        assertEquals(2, llamadas.get());
+    }
+
+    private static GatewayFilter filtro(int maximoEsperando, DataSize tamanoMaximo) {
+        AgruparPeticionesGatewayFilterFactory.Config config = new AgruparPeticionesGatewayFilterFactory.Config();
+        config.setRouteId("msv-productos");
+        config.setMaximoEsperando(maximoEsperando);
+        config.setTamanoMaximoRespuesta(tamanoMaximo);
+        return new AgruparPeticionesGatewayFilterFactory(new SimpleMeterRegistry()).apply(config);
+    }
+
+    private GatewayFilterChain retenido(GatewayFilterChain servicio) {
+        return exchange -> barrera.asMono().then(Mono.defer(() -> servicio.filter(exchange)));
+    }
+
+    private GatewayFilterChain servicio(String cuerpo) {
+        return exchange -> {
+            llamadas.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().writeWith(Mono.just(
+                    exchange.getResponse().bufferFactory().wrap(cuerpo.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange intercambio() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/productos?pagina=0"));
+    }
+
+    private static String cuerpo(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5));
+    }
+}
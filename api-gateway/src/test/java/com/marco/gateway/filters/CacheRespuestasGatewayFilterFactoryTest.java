@@ -0,0 +1,136 @@
+package com.marco.gateway.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Caché de respuestas con un servicio destino simulado que cuenta las llamadas.
+ */
+class CacheRespuestasGatewayFilterFactoryTest {
+
+    private static final String CUERPO = "[{\"id\":1}]";
+
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private final GatewayFilter filtro = filtro(DataSize.ofKilobytes(1));
+
+    @Test
+    void laPrimeraLecturaEsMissYLaSiguienteHit() {
+        MockServerWebExchange primera = intercambio(MockServerHttpRequest.get("/productos"));
+        filtro.filter(primera, servicio(CUERPO)).block();
+        MockServerWebExchange segunda = intercambio(MockServerHttpRequest.get("/productos"));
+        filtro.filter(segunda, servicio("otro")).block();
+
+        assertEquals("MISS", primera.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", segunda.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(CUERPO, segunda.getResponse().getBodyAsString().block());
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void respondeNotModifiedSiElEtagCoincide() {
+        MockServerWebExchange primera = intercambio(MockServerHttpRequest.get("/productos"));
+        filtro.filter(primera, servicio(CUERPO)).block();
+        String etag = primera.getResponse().getHeaders().getETag();
+        assertNotNull(etag);
+
+        MockServerWebExchange condicional = intercambio(MockServerHttpRequest.get("/productos").ifNoneMatch(etag));
+        filtro.filter(condicional, servicio(CUERPO)).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, condicional.getResponse().getStatusCode());
+        assertEquals("", condicional.getResponse().getBodyAsString().defaultIfEmpty("").block());
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void noGuardaUnaLecturaQueCoincidioConUnaEscritura() throws Exception {
+        Sinks.Empty<Void> barrera = Sinks.empty();
+        GatewayFilterChain lento = exchange -> barrera.asMono().then(servicio(CUERPO).filter(exchange));
+        CompletableFuture<Void> lectura = filtro.filter(intercambio(MockServerHttpRequest.get("/productos")), lento).toFuture();
+
+        filtro.filter(intercambio(MockServerHttpRequest.post("/productos")), exchange -> Mono.empty()).block();
+        barrera.tryEmitEmpty();
+        lectura.get(5, TimeUnit.SECONDS);
+
+        MockServerWebExchange siguiente = intercambio(MockServerHttpRequest.get("/productos"));
+        filtro.filter(siguiente, servicio(CUERPO)).block();
+        assertEquals("MISS", siguiente.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void enviaSinGuardarLasRespuestasMayoresQueElLimite() {
+        GatewayFilter pequeno = filtro(DataSize.ofBytes(4));
+        MockServerWebExchange primera = intercambio(MockServerHttpRequest.get("/productos"));
+        pequeno.filter(primera, servicio(CUERPO)).block();
+        MockServerWebExchange segunda = intercambio(MockServerHttpRequest.get("/productos"));
+        pequeno.filter(segunda, servicio(CUERPO)).block();
+
+        assertEquals(CUERPO, primera.getResponse().getBodyAsString().block());
+        assertEquals("MISS", segunda.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void noSirveUnaRespuestaComprimidaAQuienNoLaAcepta() {
+        GatewayFilterChain comprimido = exchange -> {
+            exchange.getResponse().getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return servicio(CUERPO).filter(exchange);
+        };
+        MockServerWebExchange gzip = intercambio(MockServerHttpRequest.get("/productos").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        filtro.filter(gzip, comprimido).block();
+        MockServerWebExchange otraGzip = intercambio(MockServerHttpRequest.get("/productos").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        filtro.filter(otraGzip, servicio("otro")).block();
+        MockServerWebExchange sinGzip = intercambio(MockServerHttpRequest.get("/productos"));
+        filtro.filter(sinGzip, servicio(CUERPO)).block();
+
+        assertEquals("gzip", otraGzip.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("MISS", sinGzip.getResponse().getHeaders().getFirst("X-Cache"));
+        assertNull(sinGzip.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(2, llamadas.get());
+    }
+
+    private GatewayFilter filtro(DataSize tamanoMaximo) {
+        CacheRespuestasGatewayFilterFactory.Config config = new CacheRespuestasGatewayFilterFactory.Config();
+        config.setRouteId("msv-productos");
+        config.setTamanoMaximoRespuesta(tamanoMaximo);
+        return new CacheRespuestasGatewayFilterFactory(new SimpleMeterRegistry()).apply(config);
+    }
+
+    // Simula el servicio: cuenta la llamada y escribe el cuerpo en dos buffers
+    private GatewayFilterChain servicio(String cuerpo) {
+        return exchange -> {
+            llamadas.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+            int mitad = bytes.length / 2;
+            return exchange.getResponse().writeWith(Flux.just(
+                    exchange.getResponse().bufferFactory().wrap(Arrays.copyOfRange(bytes, 0, mitad)),
+                    exchange.getResponse().bufferFactory().wrap(Arrays.copyOfRange(bytes, mitad, bytes.length))));
+        };
+    }
+
+    private static MockServerWebExchange intercambio(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
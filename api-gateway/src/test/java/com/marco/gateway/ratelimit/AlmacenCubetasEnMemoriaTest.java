@@ -0,0 +1,100 @@
+package com.marco.gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cubeta de tokens con un reloj controlado por la prueba.
+ */
+class AlmacenCubetasEnMemoriaTest {
+
+    private static final LimiteCubeta LIMITE = new LimiteCubeta(5, 1);
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final AlmacenCubetasEnMemoria almacen =
+            new AlmacenCubetasEnMemoria(4, Duration.ofMinutes(1), reloj::get);
+
+    @Test
+    void permiteLaRafagaYLuegoRechazaConTiempoDeEspera() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(almacen.consumirAhora("u1", LIMITE, 1).permitido());
+        }
+        ResultadoConsumo rechazado = almacen.consumirAhora("u1", LIMITE, 1);
+
+        assertFalse(rechazado.permitido());
+        assertEquals(Duration.ofSeconds(1), rechazado.reintentarEn());
+    }
+
+    @Test
+    void reponeTokensConElTiempoSinSuperarLaCapacidad() {
+        for (int i = 0; i < 5; i++) {
+            almacen.consumirAhora("u1", LIMITE, 1);
+        }
+        avanzar(Duration.ofSeconds(2));
+        assertEquals(1, almacen.consumirAhora("u1", LIMITE, 1).restantes());
+
+        avanzar(Duration.ofHours(1));
+        assertEquals(4, almacen.consumirAhora("u1", LIMITE, 1).restantes());
+    }
+
+    @Test
+    void cadaClaveTieneSuPropiaCubeta() {
+        for (int i = 0; i < 5; i++) {
+            almacen.consumirAhora("u1", LIMITE, 1);
+        }
+        assertTrue(almacen.consumirAhora("u2", LIMITE, 1).permitido());
+    }
+
+    @Test
+    void limpiarSoloEliminaCubetasInactivasYLlenas() {
+        almacen.consumirAhora("inactiva", LIMITE, 1);
+        avanzar(Duration.ofMinutes(2));
+        almacen.consumirAhora("activa", LIMITE, 1);
+
+        assertEquals(1, almacen.limpiar());
+        assertEquals(1, almacen.tamano());
+    }
+
+    @Test
+    void consumosConcurrentesNoSuperanLaCapacidad() throws Exception {
+        LimiteCubeta limite = new LimiteCubeta(100, 1);
+        AtomicInteger permitidos = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                if (almacen.consumirAhora("caliente", limite, 1).permitido()) {
+                    permitidos.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(100, permitidos.get());
+    }
+
+    private void avanzar(Duration duracion) {
+        reloj.addAndGet(duracion.toNanos());
+    }
+}
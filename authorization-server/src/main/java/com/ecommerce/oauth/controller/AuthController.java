@@ -1,8 +1,7 @@
 package com.ecommerce.oauth.controller;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,6 +12,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ecommerce.oauth.dto.LoginRequest;
+import com.ecommerce.oauth.dto.RefreshRequest;
+import com.ecommerce.oauth.dto.TokenResponse;
 import com.ecommerce.oauth.dto.UsuarioRequest;
 import com.ecommerce.oauth.dto.UsuarioResponse;
 import com.ecommerce.oauth.services.AuthService;
@@ -32,12 +33,23 @@ public class AuthController {
 		this.usuarioService = usuarioService;
 	}
 	
+	// Respuesta asíncrona: el hilo de Tomcat queda libre mientras se verifica la contraseña
 	@PostMapping("/api/login")
-	public ResponseEntity<Map<String, String>> login(@RequestBody LoginRequest request)throws Exception {
-		String token = authService.authenticate(request.username(), request.password());
-		Map<String, String> response = new HashMap<>();
-		response.put("token", token);
-		return ResponseEntity.ok(response);
+	public CompletableFuture<ResponseEntity<TokenResponse>> login(@RequestBody LoginRequest request) {
+		return authService.authenticate(request.username(), request.password())
+				.thenApply(ResponseEntity::ok);
+	}
+
+	// Nuevo token de acceso sin contraseña ni BD (el usuario sale de la caché)
+	@PostMapping("/api/refresh")
+	public ResponseEntity<TokenResponse> refrescar(@Valid @RequestBody RefreshRequest request) {
+		return ResponseEntity.ok(authService.refrescar(request.refreshToken()));
+	}
+
+	@PostMapping("/api/logout")
+	public ResponseEntity<Void> cerrarSesion(@Valid @RequestBody RefreshRequest request) {
+		authService.cerrarSesion(request.refreshToken());
+		return ResponseEntity.noContent().build();
 	}
 
 	@PostMapping("/admin/usuarios")
@@ -2,11 +2,14 @@ package com.ecommerce.oauth.controller;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -56,6 +59,30 @@ public class GlobalExceptionHandler {
 				));
 			}
 			
+			// Refresh token inválido, caducado o revocado
+			//Devuelve un HTTP 401 para que el cliente vuelva a iniciar sesión.
+			@ExceptionHandler(BadCredentialsException.class)
+			public ResponseEntity<Map<String, Object>> handleBadCredentialsException(BadCredentialsException e) {
+				LOGGER.log(Level.WARNING, "Credenciales rechazadas: " + e.getMessage());
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+						"code", HttpStatus.UNAUTHORIZED.value(),
+						"response", e.getMessage()
+				));
+			}
+			
+			// El pool de hashing de contraseñas está saturado
+			//Devuelve un HTTP 503 para que el cliente reintente más tarde.
+			@ExceptionHandler(RejectedExecutionException.class)
+			public ResponseEntity<Map<String, Object>> handleRejectedExecutionException(RejectedExecutionException e) {
+				LOGGER.log(Level.WARNING, "Pool de hashing saturado, se rechaza la petición");
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+						.header(HttpHeaders.RETRY_AFTER, "1")
+						.body(Map.of(
+						"code", HttpStatus.SERVICE_UNAVAILABLE.value(),
+						"response", "El servidor está ocupado, intente de nuevo en unos segundos"
+				));
+			}
+			
 			// Cualquier otro error que no esté registrado
 			//captura cualquier excepción no controlada que herede de Exception
 			@ExceptionHandler(Exception.class)
@@ -0,0 +1,13 @@
+package com.ecommerce.oauth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+		@NotBlank(message = "El refresh_token es requerido")
+		@JsonProperty("refresh_token")
+		String refreshToken
+		) {
+
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.oauth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenResponse(
+		String token,
+		@JsonProperty("refresh_token")
+		String refreshToken,
+		@JsonProperty("expires_in")
+		long expiresIn
+		) {
+
+}
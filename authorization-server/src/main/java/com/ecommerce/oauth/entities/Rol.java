@@ -11,7 +11,7 @@ public class Rol {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ROLES_SEQ")
-	@SequenceGenerator(name = "ROLES_SEQ", sequenceName = "ROLES_SEQ", allocationSize = 1)
+	@SequenceGenerator(name = "ROLES_SEQ", sequenceName = "ROLES_SEQ", allocationSize = 50)
 	@Column(name = "ID_ROL")
 	private Long id;
 	
@@ -3,6 +3,10 @@ package com.ecommerce.oauth.repositories;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ecommerce.oauth.entities.Usuario;
 
@@ -13,4 +17,10 @@ Optional<Usuario> findByUsername(String username);
 
 void deleteByUsername(String username);
 
+// Sustituye el hash sin cargar la entidad (rehash al iniciar sesión)
+@Transactional
+@Modifying
+@Query("UPDATE Usuario u SET u.password = :password WHERE u.username = :username")
+int actualizarPassword(@Param("username") String username, @Param("password") String password);
+
 }
@@ -0,0 +1,249 @@
+package com.ecommerce.oauth.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Claves de firma persistentes y con rotación.
+ *
+ * - Las claves (RS256 y ES256) se guardan en un JWK set local (auth.claves.archivo),
+ *   así un reinicio no invalida los tokens emitidos ni obliga a generar claves.
+ *   El archivo contiene las claves privadas: se crea con permisos solo para el propietario.
+ * - Cada clave lleva iat, nbf y exp. Se firma con la clave más reciente cuyo nbf ya pasó.
+ * - La siguiente clave se genera y publica en /oauth2/jwks auth.claves.preaviso antes
+ *   de empezar a firmar con ella, para que el gateway ya la tenga al recibir el primer token.
+ * - La clave sustituida se sigue publicando hasta que caduquen los últimos tokens
+ *   firmados con ella (auth.jwt.duracion después de su retiro) y luego se elimina.
+ * - Pensado para una sola instancia del authorization-server; con varias habría que
+ *   compartir el archivo y coordinar la rotación.
+ */
+@Component
+public class AlmacenClaves {
+
+	private static final Logger LOGGER = Logger.getLogger(AlmacenClaves.class.getName());
+
+	static final List<JWSAlgorithm> ALGORITMOS = List.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+
+	// Margen para relojes desfasados entre el authorization-server y los servicios
+	private static final Duration MARGEN = Duration.ofMinutes(1);
+
+	private final Path archivo;
+
+	private final Duration rotacion;
+
+	private final Duration preaviso;
+
+	private final Duration duracionToken;
+
+	private final Duration revision;
+
+	private volatile JWKSet jwkSet;
+
+	private ScheduledExecutorService scheduler;
+
+	public AlmacenClaves(@Value("${auth.claves.archivo:claves/jwks.json}") Path archivo,
+			@Value("${auth.claves.rotacion:30d}") Duration rotacion,
+			@Value("${auth.claves.preaviso:1d}") Duration preaviso,
+			@Value("${auth.claves.revision:1h}") Duration revision,
+			@Value("${auth.jwt.duracion:1h}") Duration duracionToken) {
+		if (preaviso.compareTo(rotacion) >= 0) {
+			throw new IllegalArgumentException("auth.claves.preaviso debe ser menor que auth.claves.rotacion");
+		}
+		this.archivo = archivo;
+		this.rotacion = rotacion;
+		this.preaviso = preaviso;
+		this.revision = revision;
+		this.duracionToken = duracionToken;
+		this.jwkSet = cargar();
+		rotar();
+	}
+
+	@PostConstruct
+	void iniciar() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rotacion-claves-");
+		threadFactory.setDaemon(true);
+		scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				rotar();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.SEVERE, "Error al rotar las claves de firma: " + e.getMessage(), e);
+			}
+		}, revision.toMillis(), revision.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void detener() {
+		if (scheduler != null) {
+			scheduler.shutdown();
+		}
+	}
+
+	/**
+	 * Todas las claves vigentes: la activa, la siguiente (si ya se publicó)
+	 * y las retiradas que todavía verifican tokens.
+	 */
+	public JWKSet jwkSet() {
+		return jwkSet;
+	}
+
+	/**
+	 * Clave con la que se firman ahora los tokens del algoritmo indicado.
+	 */
+	public JWK activa(JWSAlgorithm algoritmo) {
+		return activa(jwkSet.getKeys(), algoritmo, Instant.now());
+	}
+
+	/**
+	 * Genera la siguiente clave cuando se acerca el fin de la activa y elimina las
+	 * claves retiradas cuyos tokens ya caducaron. Guarda el archivo si hubo cambios.
+	 */
+	public synchronized void rotar() {
+		Instant ahora = Instant.now();
+		List<JWK> claves = new ArrayList<>(jwkSet.getKeys());
+		boolean cambios = claves.removeIf(clave -> clave.getExpirationTime() != null
+				&& !clave.getExpirationTime().toInstant().isAfter(ahora));
+
+		for (JWSAlgorithm algoritmo : ALGORITMOS) {
+			JWK activa = activa(claves, algoritmo, ahora);
+			if (activa == null) {
+				claves.add(generar(algoritmo, ahora, ahora));
+				cambios = true;
+				continue;
+			}
+			boolean haySiguiente = claves.stream()
+					.anyMatch(c -> matcher(algoritmo).matches(c) && inicio(c).isAfter(ahora));
+			Instant fin = inicio(activa).plus(rotacion);
+			if (!haySiguiente && !ahora.isBefore(fin.minus(preaviso))) {
+				Instant inicioSiguiente = fin.isAfter(ahora.plus(preaviso)) ? fin : ahora.plus(preaviso);
+				claves.add(generar(algoritmo, ahora, inicioSiguiente));
+				// La clave actual firma hasta inicioSiguiente y sus tokens duran duracionToken más
+				claves.set(claves.indexOf(activa),
+						conVencimiento(activa, inicioSiguiente.plus(duracionToken).plus(MARGEN)));
+				cambios = true;
+			}
+		}
+
+		if (cambios) {
+			jwkSet = new JWKSet(claves);
+			guardar();
+			LOGGER.info("Claves de firma publicadas: " + claves.stream().map(JWK::getKeyID).toList());
+		}
+	}
+
+	static JWKMatcher matcher(JWSAlgorithm algoritmo) {
+		if (JWSAlgorithm.RS256.equals(algoritmo)) {
+			return new JWKMatcher.Builder().keyType(KeyType.RSA).privateOnly(true).build();
+		}
+		if (JWSAlgorithm.ES256.equals(algoritmo)) {
+			return new JWKMatcher.Builder().keyType(KeyType.EC).curve(Curve.P_256).privateOnly(true).build();
+		}
+		throw new IllegalStateException("Algoritmo de firma no soportado: " + algoritmo + " (usar RS256 o ES256)");
+	}
+
+	// La más reciente cuyo nbf ya pasó
+	private static JWK activa(List<JWK> claves, JWSAlgorithm algoritmo, Instant ahora) {
+		JWKMatcher matcher = matcher(algoritmo);
+		return claves.stream()
+				.filter(matcher::matches)
+				.filter(c -> !inicio(c).isAfter(ahora))
+				.max(Comparator.comparing(AlmacenClaves::inicio))
+				.orElse(null);
+	}
+
+	private static Instant inicio(JWK clave) {
+		Date nbf = clave.getNotBeforeTime() != null ? clave.getNotBeforeTime() : clave.getIssueTime();
+		return nbf != null ? nbf.toInstant() : Instant.EPOCH;
+	}
+
+	private static JWK generar(JWSAlgorithm algoritmo, Instant ahora, Instant inicio) {
+		String kid = UUID.randomUUID().toString();
+		try {
+			if (JWSAlgorithm.RS256.equals(algoritmo)) {
+				return new RSAKeyGenerator(2048)
+						.keyID(kid).keyUse(KeyUse.SIGNATURE).algorithm(algoritmo)
+						.issueTime(Date.from(ahora)).notBeforeTime(Date.from(inicio))
+						.generate();
+			}
+			return new ECKeyGenerator(Curve.P_256)
+					.keyID(kid).keyUse(KeyUse.SIGNATURE).algorithm(algoritmo)
+					.issueTime(Date.from(ahora)).notBeforeTime(Date.from(inicio))
+					.generate();
+		} catch (JOSEException e) {
+			throw new IllegalStateException("No se pudo generar la clave " + algoritmo, e);
+		}
+	}
+
+	private static JWK conVencimiento(JWK clave, Instant vencimiento) {
+		if (clave instanceof RSAKey rsa) {
+			return new RSAKey.Builder(rsa).expirationTime(Date.from(vencimiento)).build();
+		}
+		return new ECKey.Builder((ECKey) clave).expirationTime(Date.from(vencimiento)).build();
+	}
+
+	private JWKSet cargar() {
+		if (!Files.exists(archivo)) {
+			LOGGER.info("No existe " + archivo + ", se generarán claves nuevas");
+			return new JWKSet();
+		}
+		try {
+			return JWKSet.load(archivo.toFile());
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("No se pudo leer el archivo de claves " + archivo, e);
+		}
+	}
+
+	// Escritura atómica: se escribe un temporal y se renombra
+	private void guardar() {
+		try {
+			Path directorio = archivo.toAbsolutePath().getParent();
+			Files.createDirectories(directorio);
+			Path temporal = Files.createTempFile(directorio, "jwks", ".tmp");
+			if (Files.getFileAttributeView(temporal, PosixFileAttributeView.class) != null) {
+				Files.setPosixFilePermissions(temporal, PosixFilePermissions.fromString("rw-------"));
+			}
+			Files.writeString(temporal, jwkSet.toString(false), StandardCharsets.UTF_8);
+			Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new IllegalStateException("No se pudo guardar el archivo de claves " + archivo, e);
+		}
+	}
+}
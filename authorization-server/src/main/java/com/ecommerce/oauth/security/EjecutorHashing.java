@@ -0,0 +1,56 @@
+package com.ecommerce.oauth.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool dedicado para las operaciones de BCrypt (verificar y codificar contraseñas).
+ *
+ * - Tantos hilos como CPUs (auth.bcrypt.hilos): BCrypt solo consume CPU, más hilos
+ *   no aumentan el rendimiento.
+ * - Cola acotada (auth.bcrypt.cola). Si está llena la tarea se rechaza al instante
+ *   con RejectedExecutionException, que el GlobalExceptionHandler responde con 503,
+ *   en vez de acumular logins y dejar sin hilos a Tomcat.
+ */
+@Component
+public class EjecutorHashing {
+
+	private final ThreadPoolExecutor executor;
+
+	public EjecutorHashing(@Value("${auth.bcrypt.hilos:0}") int hilos,
+			@Value("${auth.bcrypt.cola:64}") int cola) {
+		int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bcrypt-");
+		threadFactory.setDaemon(true);
+		this.executor = new ThreadPoolExecutor(tamano, tamano, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(cola), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * Envía la tarea al pool; no bloquea.
+	 *
+	 * @throws RejectedExecutionException si el pool y su cola están llenos
+	 */
+	public <T> CompletableFuture<T> enviar(Supplier<T> tarea) {
+		return CompletableFuture.supplyAsync(tarea, executor);
+	}
+
+	public int pendientes() {
+		return executor.getQueue().size();
+	}
+
+	@PreDestroy
+	void cerrar() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.oauth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * Emite los JWT de acceso de /api/login.
+ *
+ * - El algoritmo se elige con auth.jwt.algoritmo: RS256 (por defecto) o ES256,
+ *   que firma bastante más rápido con claves y firmas más pequeñas.
+ * - El firmante de Nimbus es thread-safe: se crea una sola vez por clave y solo
+ *   cambia cuando AlmacenClaves rota la clave activa.
+ * - La cabecera se serializa una sola vez por kid y la entrada de firma se arma a mano,
+ *   así en cada login solo se serializan los claims.
+ * - La lista "roles" se calcula una vez por conjunto de autoridades; los conjuntos
+ *   vienen internados desde RolesCache, por lo que hay muy pocos distintos.
+ */
+@Component
+public class EmisorTokens {
+
+	private final JWSAlgorithm algoritmo;
+
+	private final String issuer;
+
+	private final Duration duracion;
+
+	private final AlmacenClaves almacenClaves;
+
+	private final Map<Collection<? extends GrantedAuthority>, List<String>> roles = new ConcurrentHashMap<>();
+
+	private volatile Firmante actual;
+
+	public EmisorTokens(AlmacenClaves almacenClaves,
+			@Value("${auth.jwt.algoritmo:RS256}") String algoritmo,
+			@Value("${auth.jwt.issuer:http://localhost:9000}") String issuer,
+			@Value("${auth.jwt.duracion:1h}") Duration duracion) {
+		this.algoritmo = JWSAlgorithm.parse(algoritmo);
+		this.issuer = issuer;
+		this.duracion = duracion;
+		this.almacenClaves = almacenClaves;
+		AlmacenClaves.matcher(this.algoritmo);
+	}
+
+	public String emitir(String subject, Collection<? extends GrantedAuthority> autoridades) {
+		Instant ahora = Instant.now();
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.issuer(issuer)
+				.subject(subject)
+				.issueTime(Date.from(ahora))
+				.expirationTime(Date.from(ahora.plus(duracion)))
+				.jwtID(UUID.randomUUID().toString())
+				.claim("roles", roles.computeIfAbsent(autoridades, a -> a.stream()
+						.map(GrantedAuthority::getAuthority)
+						.toList()))
+				.build();
+		Firmante firmante = firmante();
+		String entrada = firmante.cabecera() + "." + Base64URL.encode(claims.toString());
+		try {
+			Base64URL firma = firmante.signer().sign(firmante.header(), entrada.getBytes(StandardCharsets.US_ASCII));
+			return entrada + "." + firma;
+		} catch (JOSEException e) {
+			throw new IllegalStateException("No se pudo firmar el token", e);
+		}
+	}
+
+	public Duration duracion() {
+		return duracion;
+	}
+
+	public JWSAlgorithm algoritmo() {
+		return algoritmo;
+	}
+
+	// Se vuelve a crear solo cuando AlmacenClaves activa una clave nueva
+	private Firmante firmante() {
+		JWK clave = almacenClaves.activa(algoritmo);
+		Firmante firmante = actual;
+		if (firmante == null || !firmante.header().getKeyID().equals(clave.getKeyID())) {
+			firmante = crearFirmante(clave);
+			actual = firmante;
+		}
+		return firmante;
+	}
+
+	private Firmante crearFirmante(JWK clave) {
+		try {
+			JWSSigner signer = switch (clave.getKeyType().getValue()) {
+				case "RSA" -> new RSASSASigner((RSAKey) clave);
+				case "EC" -> new ECDSASigner((ECKey) clave);
+				default -> throw new IllegalStateException("Tipo de clave no soportado: " + clave.getKeyType());
+			};
+			JWSHeader header = new JWSHeader.Builder(algoritmo).keyID(clave.getKeyID()).build();
+			return new Firmante(header, header.toBase64URL(), signer);
+		} catch (JOSEException e) {
+			throw new IllegalStateException("No se pudo crear el firmante para la clave " + clave.getKeyID(), e);
+		}
+	}
+
+	private record Firmante(JWSHeader header, Base64URL cabecera, JWSSigner signer) {
+	}
+}
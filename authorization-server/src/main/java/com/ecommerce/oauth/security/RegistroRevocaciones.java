@@ -0,0 +1,50 @@
+package com.ecommerce.oauth.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Refresh tokens revocados antes de caducar.
+ *
+ * - Solo se guardan 64 bits del id del token (aleatorio de 128 bits) y su expiración,
+ *   así cada entrada ocupa unos pocos bytes y la comprobación es un get en un mapa.
+ * - Un token caducado ya no es válido, por lo que su entrada se elimina en la
+ *   limpieza periódica que se hace al revocar.
+ * - Vive en memoria: con un reinicio o varias instancias los tokens revocados con
+ *   /api/logout vuelven a ser válidos hasta su expiración. Los de un usuario que cambió
+ *   de contraseña o de roles no dependen de este registro: los rechaza la versión de
+ *   credenciales que lleva cada token (ver {@link TokensRefresco}).
+ */
+@Component
+public class RegistroRevocaciones {
+
+	private static final long INTERVALO_LIMPIEZA = Duration.ofMinutes(5).toSeconds();
+
+	private final Map<Long, Long> revocados = new ConcurrentHashMap<>();
+
+	private final AtomicLong proximaLimpieza = new AtomicLong();
+
+	public void revocar(long id, Instant expiracion) {
+		long ahora = Instant.now().getEpochSecond();
+		if (expiracion.getEpochSecond() > ahora) {
+			revocados.put(id, expiracion.getEpochSecond());
+		}
+		long limpieza = proximaLimpieza.get();
+		if (ahora >= limpieza && proximaLimpieza.compareAndSet(limpieza, ahora + INTERVALO_LIMPIEZA)) {
+			revocados.values().removeIf(exp -> exp <= ahora);
+		}
+	}
+
+	public boolean revocado(long id) {
+		return revocados.containsKey(id);
+	}
+
+	public int tamano() {
+		return revocados.size();
+	}
+}
@@ -1,13 +1,11 @@
 package com.ecommerce.oauth.security;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -21,6 +19,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.core.oidc.OidcScopes;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
@@ -29,6 +28,8 @@ import org.springframework.security.oauth2.server.authorization.config.annotatio
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
@@ -40,9 +41,7 @@ import com.ecommerce.oauth.entities.Usuario;
 import com.ecommerce.oauth.repositories.RolRepository;
 import com.ecommerce.oauth.repositories.UsuarioRepository;
 import com.ecommerce.oauth.services.CustomUserDetailsService;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 
@@ -85,7 +84,9 @@ public class SecurityConfig {
 			throws Exception {
 		http
 			.authorizeHttpRequests((authorize) -> authorize
-				.requestMatchers("/api/login").permitAll()
+				.requestMatchers("/api/login", "/api/refresh", "/api/logout").permitAll()
+				// Sondas y Prometheus, en el puerto de management
+				.requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
 				.requestMatchers("/admin/**").hasRole("ADMIN")
 				.anyRequest().authenticated()
 			)
@@ -103,9 +104,11 @@ public class SecurityConfig {
 		return http.build();
 	}
 	
+	// El coste (auth.bcrypt.coste) se puede cambiar sin migrar: los hashes con otro
+	// coste se vuelven a generar la próxima vez que el usuario inicia sesión
 	@Bean
-	PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.coste:10}") int coste) {
+		return new BCryptPasswordEncoder(coste);
 	}
 	
 	/*@Bean 
@@ -186,30 +189,19 @@ public class SecurityConfig {
 		return new InMemoryRegisteredClientRepository(apigateway);
 	}
 	
+	// Las claves salen de AlmacenClaves (persistentes y con rotación)
 	@Bean
-	JWKSource<SecurityContext> jwkSource() {
-		KeyPair keyPair = generateRsaKey();
-		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-		RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-		RSAKey rsaKey = new RSAKey.Builder(publicKey)
-				.privateKey(privateKey)
-				.keyID(UUID.randomUUID().toString())
-				.build();
-		JWKSet jwkSet = new JWKSet(rsaKey);
-		return new ImmutableJWKSet<>(jwkSet);
+	JWKSource<SecurityContext> jwkSource(AlmacenClaves almacenClaves) {
+		return (selector, context) -> selector.select(almacenClaves.jwkSet());
 	}
-	
-	private static KeyPair generateRsaKey() { 
-		KeyPair keyPair;
-		try {
-			KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-			keyPairGenerator.initialize(2048);
-			keyPair = keyPairGenerator.generateKeyPair();
-		}
-		catch (Exception ex) {
-			throw new IllegalStateException(ex);
-		}
-		return keyPair;
+
+	// Durante la rotación hay varias claves RSA publicadas: los tokens que emite el
+	// propio authorization-server (OIDC) indican el kid de la clave activa
+	@Bean
+	OAuth2TokenCustomizer<JwtEncodingContext> jwtTokenCustomizer(AlmacenClaves almacenClaves) {
+		return context -> context.getJwsHeader()
+				.algorithm(SignatureAlgorithm.RS256)
+				.keyId(almacenClaves.activa(JWSAlgorithm.RS256).getKeyID());
 	}
 
 	@Bean 
@@ -0,0 +1,186 @@
+package com.ecommerce.oauth.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refresh tokens compactos y sin estado.
+ *
+ * Formato: base64url(id[16] + expiración[8] + versión[8] + username) "." base64url(HMAC-SHA256).
+ * - Validar un token es calcular un HMAC y consultar {@link RegistroRevocaciones};
+ *   no hace falta la BD ni BCrypt.
+ * - La versión es la huella de las credenciales del usuario al emitirlo
+ *   ({@link #version(String, Collection)}): al cambiar la contraseña o los roles dejan de
+ *   valer todos sus refresh tokens, también tras un reinicio o en otra instancia.
+ * - No es un JWT (solo tiene dos partes), así que ningún resource server lo acepta
+ *   como token de acceso aunque se envíe en el Authorization.
+ * - El secreto (auth.refresh.secreto, en base64) debe configurarse para que los
+ *   tokens sobrevivan a un reinicio; si falta se genera uno aleatorio al arrancar.
+ */
+@Component
+public class TokensRefresco {
+
+	private static final Logger LOGGER = Logger.getLogger(TokensRefresco.class.getName());
+
+	private static final String ALGORITMO = "HmacSHA256";
+
+	private static final int CABECERA = 16 + 8 + 8;
+
+	private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+	private final SecureRandom random = new SecureRandom();
+
+	private final SecretKeySpec secreto;
+
+	private final Duration duracion;
+
+	private final RegistroRevocaciones revocaciones;
+
+	// Mac no es thread-safe
+	private final ThreadLocal<Mac> macs;
+
+	public TokensRefresco(RegistroRevocaciones revocaciones,
+			@Value("${auth.refresh.secreto:}") String secreto,
+			@Value("${auth.refresh.duracion:7d}") Duration duracion) {
+		this.revocaciones = revocaciones;
+		this.duracion = duracion;
+		this.secreto = new SecretKeySpec(secreto(secreto), ALGORITMO);
+		this.macs = ThreadLocal.withInitial(this::crearMac);
+	}
+
+	public record Contenido(long id, Instant expiracion, long version, String username) {
+	}
+
+	/**
+	 * Huella de las credenciales: primeros 64 bits del SHA-256 del hash de la contraseña
+	 * y los roles. Cambia con cualquier cambio de contraseña (el hash BCrypt lleva sal)
+	 * o de roles.
+	 */
+	public static long version(String hashPassword, Collection<? extends GrantedAuthority> autoridades) {
+		String roles = autoridades.stream()
+				.map(GrantedAuthority::getAuthority)
+				.sorted()
+				.collect(Collectors.joining(","));
+		try {
+			byte[] huella = MessageDigest.getInstance("SHA-256")
+					.digest((hashPassword + "\n" + roles).getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(huella).getLong();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("SHA-256 no disponible", e);
+		}
+	}
+
+	public String emitir(String username, long version) {
+		byte[] nombre = username.getBytes(StandardCharsets.UTF_8);
+		byte[] id = new byte[16];
+		random.nextBytes(id);
+		ByteBuffer datos = ByteBuffer.allocate(CABECERA + nombre.length)
+				.put(id)
+				.putLong(Instant.now().plus(duracion).getEpochSecond())
+				.putLong(version)
+				.put(nombre);
+		byte[] carga = datos.array();
+		return CODIFICADOR.encodeToString(carga) + "." + CODIFICADOR.encodeToString(firmar(carga));
+	}
+
+	/**
+	 * Comprueba firma, expiración y revocación.
+	 *
+	 * @throws BadCredentialsException si el token no es válido
+	 */
+	public Contenido validar(String token) {
+		Contenido contenido = leer(token);
+		if (!contenido.expiracion().isAfter(Instant.now())) {
+			throw new BadCredentialsException("Refresh token caducado");
+		}
+		if (revocaciones.revocado(contenido.id())) {
+			throw new BadCredentialsException("Refresh token revocado");
+		}
+		return contenido;
+	}
+
+	/**
+	 * Revoca el token si su firma es válida; un token caducado o ya revocado no hace nada.
+	 */
+	public void revocar(String token) {
+		Contenido contenido = leer(token);
+		revocaciones.revocar(contenido.id(), contenido.expiracion());
+	}
+
+	public Duration duracion() {
+		return duracion;
+	}
+
+	private Contenido leer(String token) {
+		int punto = token == null ? -1 : token.indexOf('.');
+		if (punto <= 0) {
+			throw new BadCredentialsException("Refresh token inválido");
+		}
+		byte[] carga;
+		byte[] firma;
+		try {
+			carga = DECODIFICADOR.decode(token.substring(0, punto));
+			firma = DECODIFICADOR.decode(token.substring(punto + 1));
+		} catch (IllegalArgumentException e) {
+			throw new BadCredentialsException("Refresh token inválido");
+		}
+		if (carga.length <= CABECERA || !MessageDigest.isEqual(firma, firmar(carga))) {
+			throw new BadCredentialsException("Refresh token inválido");
+		}
+		ByteBuffer datos = ByteBuffer.wrap(carga);
+		// Para revocar basta con 64 de los 128 bits aleatorios
+		long id = datos.getLong();
+		datos.getLong();
+		Instant expiracion = Instant.ofEpochSecond(datos.getLong());
+		long version = datos.getLong();
+		String username = new String(carga, CABECERA, carga.length - CABECERA, StandardCharsets.UTF_8);
+		return new Contenido(id, expiracion, version, username);
+	}
+
+	private byte[] firmar(byte[] carga) {
+		return macs.get().doFinal(carga);
+	}
+
+	private Mac crearMac() {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(secreto);
+			return mac;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("No se pudo inicializar " + ALGORITMO, e);
+		}
+	}
+
+	private byte[] secreto(String configurado) {
+		if (configurado != null && !configurado.isBlank()) {
+			byte[] secreto = Base64.getDecoder().decode(configurado);
+			if (secreto.length < 32) {
+				throw new IllegalArgumentException("auth.refresh.secreto debe tener al menos 32 bytes");
+			}
+			return secreto;
+		}
+		LOGGER.warning("auth.refresh.secreto no configurado: los refresh tokens no sobrevivirán a un reinicio");
+		byte[] secreto = new byte[32];
+		random.nextBytes(secreto);
+		return secreto;
+	}
+}
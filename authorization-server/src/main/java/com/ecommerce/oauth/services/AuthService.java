@@ -1,5 +1,25 @@
 package com.ecommerce.oauth.services;
 
+import java.util.concurrent.CompletableFuture;
+
+import com.ecommerce.oauth.dto.TokenResponse;
+
 public interface AuthService {
-	String authenticate(String username, String password) throws Exception;
+
+	/**
+	 * Valida las credenciales y emite el token de acceso y el refresh token. El resultado
+	 * se completa en el pool de hashing; si está saturado se lanza RejectedExecutionException.
+	 */
+	CompletableFuture<TokenResponse> authenticate(String username, String password);
+
+	/**
+	 * Emite un token de acceso nuevo a partir de un refresh token válido, sin
+	 * comprobar la contraseña. Los roles se leen de la caché de usuarios.
+	 */
+	TokenResponse refrescar(String refreshToken);
+
+	/**
+	 * Revoca el refresh token (cierre de sesión).
+	 */
+	void cerrarSesion(String refreshToken);
 }
@@ -1,77 +1,122 @@
 package com.ecommerce.oauth.services;
 
-import java.time.Instant;
-import java.util.Date;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import com.nimbusds.jose.jwk.JWKMatcher;
-import com.nimbusds.jose.jwk.JWKSelector;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.jwk.KeyType;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.proc.SecurityContext;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
+import com.ecommerce.oauth.dto.TokenResponse;
+import com.ecommerce.oauth.repositories.UsuarioRepository;
+import com.ecommerce.oauth.security.EjecutorHashing;
+import com.ecommerce.oauth.security.EmisorTokens;
+import com.ecommerce.oauth.security.TokensRefresco;
 
 @Service
 public class AuthServiceImpl implements AuthService{
 
+	private static final Logger LOGGER = Logger.getLogger(AuthServiceImpl.class.getName());
 	
-	private final UserDetailsService userDetailsService;
-	private final RSAKey rsaKey;
+	private final CustomUserDetailsService userDetailsService;
+	private final EmisorTokens emisorTokens;
+	private final TokensRefresco tokensRefresco;
+	private final PasswordEncoder passwordEncoder;
+	private final EjecutorHashing ejecutorHashing;
+	private final UsuarioRepository usuarioRepository;
+	private final int coste;
 	
-	public AuthServiceImpl(UserDetailsService userDetailsService, JWKSource<SecurityContext> jwkSource) {
+	public AuthServiceImpl(CustomUserDetailsService userDetailsService, EmisorTokens emisorTokens,
+			TokensRefresco tokensRefresco,
+			PasswordEncoder passwordEncoder, EjecutorHashing ejecutorHashing, UsuarioRepository usuarioRepository,
+			@Value("${auth.bcrypt.coste:10}") int coste) {
 		this.userDetailsService = userDetailsService;
-		try {
-			// Selecciona las claves de RSA
-			JWKSelector jwkSelector = new JWKSelector(
-					new JWKMatcher.Builder().keyType(KeyType.RSA).build()
-			);
-			var jwks = jwkSource.get(jwkSelector, null);
-			if (jwks == null || jwks.isEmpty()) {
-				throw new RuntimeException("No se pudo obtener la clave RSA");
-			}
-			this.rsaKey = (RSAKey) jwks.get(0);
-		} catch (Exception e) {
-			throw new RuntimeException("No se pudo obtener la clave RSA");
-		}
+		this.emisorTokens = emisorTokens;
+		this.tokensRefresco = tokensRefresco;
+		this.passwordEncoder = passwordEncoder;
+		this.ejecutorHashing = ejecutorHashing;
+		this.usuarioRepository = usuarioRepository;
+		this.coste = coste;
 	}
 	
+	/**
+	 * La búsqueda del usuario se hace en el hilo de la petición (normalmente sale de la caché);
+	 * la comprobación de BCrypt y la firma del token se hacen en el {@link EjecutorHashing}.
+	 */
 	@Override
-	public String authenticate(String username, String password) throws Exception {
+	public CompletableFuture<TokenResponse> authenticate(String username, String password) {
 		UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-		if (userDetails == null || !new BCryptPasswordEncoder().matches(password, userDetails.getPassword())) {
-			throw new RuntimeException("Credenciales inválidas");
+		return ejecutorHashing.enviar(() -> {
+			if (userDetails == null || !passwordEncoder.matches(password, userDetails.getPassword())) {
+				throw new RuntimeException("Credenciales inválidas");
+			}
+			String hash = userDetails.getPassword();
+			if (requiereRehash(hash)) {
+				hash = rehash(userDetails.getUsername(), password, hash);
+			}
+			return new TokenResponse(
+					emisorTokens.emitir(userDetails.getUsername(), userDetails.getAuthorities()),
+					tokensRefresco.emitir(userDetails.getUsername(),
+							TokensRefresco.version(hash, userDetails.getAuthorities())),
+					emisorTokens.duracion().toSeconds());
+		});
+	}
+
+	/**
+	 * El token solo vale si las credenciales del usuario (contraseña y roles, según la caché)
+	 * siguen siendo las que tenía al emitirlo.
+	 */
+	@Override
+	public TokenResponse refrescar(String refreshToken) {
+		TokensRefresco.Contenido contenido = tokensRefresco.validar(refreshToken);
+		UserDetails userDetails;
+		try {
+			userDetails = userDetailsService.loadUserByUsername(contenido.username());
+		} catch (UsernameNotFoundException e) {
+			// El usuario se eliminó después de emitir el refresh token
+			throw new BadCredentialsException("Refresh token inválido");
+		}
+		if (contenido.version() != TokensRefresco.version(userDetails.getPassword(), userDetails.getAuthorities())) {
+			throw new BadCredentialsException("Refresh token inválido: las credenciales cambiaron");
+		}
+		return new TokenResponse(
+				emisorTokens.emitir(userDetails.getUsername(), userDetails.getAuthorities()),
+				null,
+				emisorTokens.duracion().toSeconds());
+	}
+
+	@Override
+	public void cerrarSesion(String refreshToken) {
+		tokensRefresco.revocar(refreshToken);
+	}
+
+	// Un hash generado con otro coste se vuelve a generar con el configurado
+	private boolean requiereRehash(String hash) {
+		// Formato BCrypt: $2a$10$...
+		if (hash == null || hash.length() < 7 || hash.charAt(0) != '$') {
+			return true;
+		}
+		try {
+			return Integer.parseInt(hash.substring(4, 6)) != coste;
+		} catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	// Si falla no se interrumpe el login: se reintentará en el siguiente. Devuelve el hash guardado
+	private String rehash(String username, String password, String hashAnterior) {
+		try {
+			String hash = passwordEncoder.encode(password);
+			usuarioRepository.actualizarPassword(username, hash);
+			userDetailsService.invalidar(username);
+			return hash;
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "No se pudo actualizar el hash de " + username + ": " + e.getMessage());
+			return hashAnterior;
 		}
-		
-		Instant now = Instant.now();
-		JWTClaimsSet claims = new JWTClaimsSet.Builder()
-				.issuer("http://localhost:9000")
-				.subject(userDetails.getUsername())
-				.issueTime(Date.from(now))
-				.expirationTime(Date.from(now.plusSeconds(3600)))
-				.jwtID(UUID.randomUUID().toString())
-				//.claim("roles", userDetails.getAuthorities())
-				.claim("roles", userDetails.getAuthorities()
-				        .stream()
-				        .map(a -> a.getAuthority())
-				        .toList())
-				.build();
-		SignedJWT signedJWT = new SignedJWT(
-				new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build()
-				,claims);
-		JWSSigner signer = new RSASSASigner(rsaKey.toPrivateKey());
-		signedJWT.sign(signer);
-		
-		return signedJWT.serialize();
 	}
 }
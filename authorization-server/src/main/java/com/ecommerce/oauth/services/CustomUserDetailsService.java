@@ -1,42 +1,90 @@
 package com.ecommerce.oauth.services;
 
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.Set;
 
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.ecommerce.oauth.entities.Usuario;
 import com.ecommerce.oauth.repositories.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
+/**
+ * Carga los usuarios de BD con una caché local delante.
+ *
+ * - Acotada por número de entradas y con expiración por TTL desde la escritura.
+ * - UsuarioServiceImpl invalida la entrada al crear o eliminar un usuario.
+ * - Solo se guardan usuarios existentes; un username desconocido siempre consulta la BD.
+ * - Se guarda una copia inmutable y cada llamada devuelve un User nuevo, porque Spring
+ *   Security puede borrar la contraseña del UserDetails después de autenticar.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService{
-	
+
 	private final UsuarioRepository usuarioRepository;
 
-	public CustomUserDetailsService(UsuarioRepository usuarioRepository) {
+	private final RolesCache rolesCache;
+
+	private final Cache<String, UsuarioCacheado> cache;
+
+	public CustomUserDetailsService(UsuarioRepository usuarioRepository, RolesCache rolesCache,
+			@Value("${auth.cache.usuarios.ttl:5m}") Duration ttl,
+			@Value("${auth.cache.usuarios.tamano-maximo:10000}") long tamanoMaximo) {
 		this.usuarioRepository = usuarioRepository;
+		this.rolesCache = rolesCache;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(tamanoMaximo)
+				.expireAfterWrite(ttl)
+				.build();
 	}
 
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado en BD"));
-		
-		return new User(
-				
-				 usuario.getUsername(),
-	                usuario.getPassword(),
-	                usuario.getRoles().stream()
-	                		.map(r -> new SimpleGrantedAuthority(r.getNombre()))
-	                			.collect(Collectors.toSet())
-		
-				);
+		UsuarioCacheado usuario = cache.get(username, this::cargar);
+		if (usuario == null) {
+			throw new UsernameNotFoundException("Usuario no encontrado en BD");
+		}
+		return new User(usuario.username(), usuario.password(), usuario.autoridades());
+	}
+
+	/**
+	 * Descarta el usuario de la caché. Si hay una transacción en curso se descarta
+	 * también al confirmarla, para que un login concurrente no vuelva a guardar
+	 * los datos anteriores al cambio.
+	 */
+	public void invalidar(String username) {
+		cache.invalidate(username);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					cache.invalidate(username);
+				}
+			});
+		}
+	}
+
+	private UsuarioCacheado cargar(String username) {
+		return usuarioRepository.findByUsername(username)
+				.map(this::copiar)
+				.orElse(null);
+	}
+
+	private UsuarioCacheado copiar(Usuario usuario) {
+		return new UsuarioCacheado(usuario.getUsername(), usuario.getPassword(),
+				rolesCache.autoridades(usuario.getRoles()));
+	}
+
+	private record UsuarioCacheado(String username, String password, Set<GrantedAuthority> autoridades) {
 	}
-	
-	
 
 }
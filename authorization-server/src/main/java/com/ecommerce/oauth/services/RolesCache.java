@@ -0,0 +1,63 @@
+package com.ecommerce.oauth.services;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.oauth.entities.Rol;
+import com.ecommerce.oauth.repositories.RolRepository;
+
+/**
+ * Tabla de roles internados.
+ *
+ * ROLES_OAUTH es pequeña y casi estática: se lee una sola vez al arrancar y cada
+ * nombre de rol se traduce siempre a la misma instancia de GrantedAuthority. Los
+ * conjuntos de autoridades también se internan, así que todos los usuarios con los
+ * mismos roles comparten un único Set inmutable.
+ * Un rol creado después del arranque se añade la primera vez que se pide.
+ */
+@Component
+public class RolesCache {
+
+	private static final Logger LOGGER = Logger.getLogger(RolesCache.class.getName());
+
+	private final RolRepository rolRepository;
+
+	private final Map<String, GrantedAuthority> autoridades = new ConcurrentHashMap<>();
+
+	private final Map<Set<String>, Set<GrantedAuthority>> conjuntos = new ConcurrentHashMap<>();
+
+	public RolesCache(RolRepository rolRepository) {
+		this.rolRepository = rolRepository;
+	}
+
+	// Se ejecuta después de los CommandLineRunner, por lo que los roles iniciales ya existen
+	@EventListener(ApplicationReadyEvent.class)
+	public void cargar() {
+		rolRepository.findAll().forEach(rol -> autoridad(rol.getNombre()));
+		LOGGER.info("Roles cargados en memoria: " + autoridades.keySet());
+	}
+
+	public GrantedAuthority autoridad(String nombre) {
+		return autoridades.computeIfAbsent(nombre, SimpleGrantedAuthority::new);
+	}
+
+	/**
+	 * Devuelve el conjunto inmutable y compartido de autoridades para esos roles.
+	 */
+	public Set<GrantedAuthority> autoridades(Collection<Rol> roles) {
+		Set<String> nombres = roles.stream().map(Rol::getNombre).collect(Collectors.toUnmodifiableSet());
+		return conjuntos.computeIfAbsent(nombres, n -> n.stream()
+				.map(this::autoridad)
+				.collect(Collectors.toUnmodifiableSet()));
+	}
+}
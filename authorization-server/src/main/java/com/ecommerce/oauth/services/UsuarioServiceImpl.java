@@ -25,11 +25,14 @@ private final UsuarioRepository usuarioRepository;
 	
 	private final PasswordEncoder passwordEncoder;
 
+	private final CustomUserDetailsService userDetailsService;
+
 	public UsuarioServiceImpl(UsuarioRepository usuarioRepository, RolRepository rolRepository,
-			PasswordEncoder passwordEncoder) {
+			PasswordEncoder passwordEncoder, CustomUserDetailsService userDetailsService) {
 		this.usuarioRepository = usuarioRepository;
 		this.rolRepository = rolRepository;
 		this.passwordEncoder = passwordEncoder;
+		this.userDetailsService = userDetailsService;
 	}
 
 	@Override
@@ -62,6 +65,7 @@ private final UsuarioRepository usuarioRepository;
         usuario.setRoles(roles);
 
         usuarioRepository.save(usuario);
+        userDetailsService.invalidar(usuario.getUsername());
 
         return new UsuarioResponse(usuario.getUsername(),
                 usuario.getRoles().stream().map(Rol::getNombre).collect(Collectors.toSet()));
@@ -72,6 +76,7 @@ private final UsuarioRepository usuarioRepository;
 	public UsuarioResponse eliminarUsuario(String username) {
 		Usuario usuario = usuarioRepository.findByUsername(username).orElseThrow();
 		usuarioRepository.deleteByUsername(username);
+		userDetailsService.invalidar(username);
 		return new UsuarioResponse(usuario.getUsername(),
                 usuario.getRoles().stream().map(Rol::getNombre).collect(Collectors.toSet()));
 	}
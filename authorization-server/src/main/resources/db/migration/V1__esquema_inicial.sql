@@ -0,0 +1,29 @@
+-- Esquema del authorization-server anterior a las migraciones (las bases existentes se
+-- marcan como V1). Las restricciones UNIQUE de USERNAME y NOMBRE crean los índices de
+-- findByUsername y findByNombre. Los roles ROLE_ADMIN y ROLE_USER los crea SecurityConfig.
+CREATE SEQUENCE USUARIOS_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE SEQUENCE ROLES_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE TABLE USUARIOS_OAUTH (
+    ID_USUARIO  NUMBER(19)      NOT NULL,
+    USERNAME    VARCHAR2(20)    NOT NULL,
+    PASSWORD    VARCHAR2(100)   NOT NULL,
+    CONSTRAINT PK_USUARIOS_OAUTH PRIMARY KEY (ID_USUARIO),
+    CONSTRAINT UN_USERNAME UNIQUE (USERNAME)
+);
+
+CREATE TABLE ROLES_OAUTH (
+    ID_ROL  NUMBER(19)      NOT NULL,
+    NOMBRE  VARCHAR2(15)    NOT NULL,
+    CONSTRAINT PK_ROLES_OAUTH PRIMARY KEY (ID_ROL),
+    CONSTRAINT UN_NOMBRE_ROL UNIQUE (NOMBRE)
+);
+
+CREATE TABLE USUARIOS_ROLES (
+    ID_USUARIO  NUMBER(19)  NOT NULL,
+    ID_ROL      NUMBER(19)  NOT NULL,
+    CONSTRAINT PK_USUARIOS_ROLES PRIMARY KEY (ID_USUARIO, ID_ROL),
+    CONSTRAINT FK_USUARIOS_ROLES_USUARIO FOREIGN KEY (ID_USUARIO) REFERENCES USUARIOS_OAUTH (ID_USUARIO),
+    CONSTRAINT FK_USUARIOS_ROLES_ROL FOREIGN KEY (ID_ROL) REFERENCES ROLES_OAUTH (ID_ROL)
+);
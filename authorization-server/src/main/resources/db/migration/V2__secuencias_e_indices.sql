@@ -0,0 +1,8 @@
+-- Usuario y Rol reservan 50 ids por llamada a la secuencia (allocationSize = 50, optimizador pooled).
+ALTER SEQUENCE USUARIOS_SEQ INCREMENT BY 50 CACHE 20;
+
+ALTER SEQUENCE ROLES_SEQ INCREMENT BY 50 CACHE 20;
+
+-- La PK de USUARIOS_ROLES empieza por ID_USUARIO; la FK hacia ROLES_OAUTH necesita su propio
+-- índice para que borrar o actualizar un rol no bloquee la tabla completa.
+CREATE INDEX IDX_USUARIOS_ROLES_ROL ON USUARIOS_ROLES (ID_ROL);
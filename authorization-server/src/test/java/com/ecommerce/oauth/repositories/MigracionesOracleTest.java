@@ -0,0 +1,103 @@
+package com.ecommerce.oauth.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.oracle.OracleContainer;
+
+import com.ecommerce.oauth.entities.Rol;
+import com.ecommerce.oauth.entities.Usuario;
+
+/**
+ * Aplica las migraciones de Flyway sobre un Oracle Free en contenedor y comprueba que las
+ * entidades validan contra el esquema resultante (ddl-auto=validate), que las secuencias
+ * avanzan lo mismo que allocationSize y que existen los índices. Se omite si no hay Docker.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MigracionesOracleTest {
+
+	@Container
+	@ServiceConnection
+	static OracleContainer oracle = new OracleContainer("gvenzl/oracle-free:23-slim-faststart");
+
+	// Configuración mínima: evita arrancar el authorization-server (claves, BCrypt, cachés)
+	@Configuration
+	@EntityScan(basePackageClasses = Usuario.class)
+	@EnableJpaRepositories(basePackageClasses = UsuarioRepository.class)
+	static class Config {
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private RolRepository rolRepository;
+
+	@Test
+	void aplicaTodasLasMigraciones() {
+		assertEquals("2", flyway.info().current().getVersion().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+	}
+
+	@Test
+	void secuenciasCoincidenConAllocationSize() {
+		assertEquals(50, incremento("USUARIOS_SEQ"));
+		assertEquals(50, incremento("ROLES_SEQ"));
+	}
+
+	@Test
+	void usernameYRolesIndexados() {
+		assertTrue(indexada("USUARIOS_OAUTH", "USERNAME"));
+		assertTrue(indexada("ROLES_OAUTH", "NOMBRE"));
+		assertTrue(indexada("USUARIOS_ROLES", "ID_USUARIO"));
+		assertTrue(indexada("USUARIOS_ROLES", "ID_ROL"));
+	}
+
+	@Test
+	void guardaUsuarioConRoles() {
+		Rol rol = new Rol();
+		rol.setNombre("ROLE_USER");
+		rol = rolRepository.saveAndFlush(rol);
+		Usuario usuario = new Usuario();
+		usuario.setUsername("ana");
+		usuario.setPassword("$2a$10$abcdefghijklmnopqrstuuH5XcG9a1ZTnVbVzWQ2bQp0zE3wq5K0u");
+		usuario.setRoles(Set.of(rol));
+		usuarioRepository.saveAndFlush(usuario);
+
+		Usuario leido = usuarioRepository.findByUsername("ana").orElseThrow();
+		assertEquals(Set.of("ROLE_USER"), Set.copyOf(leido.getRoles().stream().map(Rol::getNombre).toList()));
+	}
+
+	private int incremento(String secuencia) {
+		return jdbcTemplate.queryForObject(
+				"SELECT INCREMENT_BY FROM USER_SEQUENCES WHERE SEQUENCE_NAME = ?", Integer.class, secuencia);
+	}
+
+	private boolean indexada(String tabla, String columna) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM USER_IND_COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = ? AND COLUMN_POSITION = 1",
+				Integer.class, tabla, columna) > 0;
+	}
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.oauth.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+/**
+ * Persistencia y rotación de las claves de firma. Para no esperar días, cada prueba parte
+ * de un archivo de claves con las fechas ya desplazadas.
+ */
+class AlmacenClavesTest {
+
+	private static final Duration ROTACION = Duration.ofDays(30);
+
+	private static final Duration PREAVISO = Duration.ofDays(1);
+
+	private static final Duration DURACION_TOKEN = Duration.ofHours(1);
+
+	@TempDir
+	Path directorio;
+
+	@Test
+	void generaLasClavesYLasRecuperaDelArchivoAlReiniciar() throws Exception {
+		Path archivo = directorio.resolve("claves/jwks.json");
+		AlmacenClaves primero = almacen(archivo);
+		JWK rs256 = primero.activa(JWSAlgorithm.RS256);
+		JWK es256 = primero.activa(JWSAlgorithm.ES256);
+
+		AlmacenClaves reiniciado = almacen(archivo);
+
+		assertEquals(2, reiniciado.jwkSet().getKeys().size());
+		assertEquals(rs256.getKeyID(), reiniciado.activa(JWSAlgorithm.RS256).getKeyID());
+		assertEquals(es256.getKeyID(), reiniciado.activa(JWSAlgorithm.ES256).getKeyID());
+		assertTrue(rs256.isPrivate());
+		if (Files.getFileAttributeView(archivo, PosixFileAttributeView.class) != null) {
+			assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(archivo));
+		}
+	}
+
+	@Test
+	void publicaLaSiguienteClaveAntesDeFirmarConElla() throws Exception {
+		Instant ahora = Instant.now();
+		JWK rs256 = clave(JWSAlgorithm.RS256, ahora.minus(ROTACION).plus(Duration.ofHours(12)), null);
+		JWK es256 = clave(JWSAlgorithm.ES256, ahora.minus(Duration.ofDays(1)), null);
+		Path archivo = guardar(rs256, es256);
+
+		AlmacenClaves almacen = almacen(archivo);
+
+		// La RS256 entra en el preaviso: se publica la siguiente pero se sigue firmando con la actual
+		assertEquals(3, almacen.jwkSet().getKeys().size());
+		assertEquals(rs256.getKeyID(), almacen.activa(JWSAlgorithm.RS256).getKeyID());
+		// Aunque la actual termine antes, la siguiente se publica con el preaviso completo
+		JWK siguiente = siguiente(almacen, Set.of(rs256.getKeyID(), es256.getKeyID()));
+		Instant inicio = siguiente.getNotBeforeTime().toInstant();
+		assertFalse(inicio.isBefore(ahora.plus(PREAVISO).minusSeconds(1)));
+		assertTrue(inicio.isBefore(ahora.plus(PREAVISO).plusSeconds(60)));
+		// La clave actual vence cuando caducan los últimos tokens que firme
+		Instant vencimiento = almacen.activa(JWSAlgorithm.RS256).getExpirationTime().toInstant();
+		assertEquals(inicio.plus(DURACION_TOKEN).plus(Duration.ofMinutes(1)), vencimiento);
+		// Y el cambio se guarda
+		assertEquals(3, JWKSet.load(archivo.toFile()).getKeys().size());
+	}
+
+	@Test
+	void unaClaveVencidaSinSiguienteSigueFirmandoDuranteElPreaviso() throws Exception {
+		Instant ahora = Instant.now();
+		JWK rs256 = clave(JWSAlgorithm.RS256, ahora.minus(ROTACION).minus(Duration.ofDays(5)), null);
+		JWK es256 = clave(JWSAlgorithm.ES256, ahora, null);
+
+		AlmacenClaves almacen = almacen(guardar(rs256, es256));
+
+		JWK siguiente = siguiente(almacen, Set.of(rs256.getKeyID(), es256.getKeyID()));
+		assertFalse(siguiente.getNotBeforeTime().toInstant().isBefore(ahora.plus(PREAVISO).minusSeconds(1)));
+		assertEquals(rs256.getKeyID(), almacen.activa(JWSAlgorithm.RS256).getKeyID());
+	}
+
+	@Test
+	void firmaConLaSiguienteCuandoLlegaSuNbfYMantieneLaAnteriorHastaQueVence() throws Exception {
+		Instant ahora = Instant.now();
+		JWK retirada = clave(JWSAlgorithm.RS256, ahora.minus(ROTACION), ahora.plus(Duration.ofMinutes(30)));
+		JWK nueva = clave(JWSAlgorithm.RS256, ahora.minus(Duration.ofMinutes(30)), null);
+		JWK es256 = clave(JWSAlgorithm.ES256, ahora, null);
+
+		AlmacenClaves almacen = almacen(guardar(retirada, nueva, es256));
+
+		assertEquals(nueva.getKeyID(), almacen.activa(JWSAlgorithm.RS256).getKeyID());
+		assertTrue(kids(almacen).contains(retirada.getKeyID()));
+		assertEquals(3, almacen.jwkSet().getKeys().size());
+	}
+
+	@Test
+	void eliminaLasClavesRetiradasCuyosTokensYaCaducaron() throws Exception {
+		Instant ahora = Instant.now();
+		JWK caducada = clave(JWSAlgorithm.RS256, ahora.minus(Duration.ofDays(60)), ahora.minusSeconds(1));
+		JWK rs256 = clave(JWSAlgorithm.RS256, ahora.minus(Duration.ofDays(2)), null);
+		JWK es256 = clave(JWSAlgorithm.ES256, ahora, null);
+		Path archivo = guardar(caducada, rs256, es256);
+
+		AlmacenClaves almacen = almacen(archivo);
+
+		assertFalse(kids(almacen).contains(caducada.getKeyID()));
+		assertEquals(Set.of(rs256.getKeyID(), es256.getKeyID()), kids(almacen));
+		assertFalse(Files.readString(archivo, StandardCharsets.UTF_8).contains(caducada.getKeyID()));
+	}
+
+	@Test
+	void generaClavesNuevasSiNoQuedaNingunaValida() throws Exception {
+		Instant ahora = Instant.now();
+		JWK caducada = clave(JWSAlgorithm.RS256, ahora.minus(Duration.ofDays(60)), ahora.minusSeconds(1));
+
+		AlmacenClaves almacen = almacen(guardar(caducada));
+
+		assertNotEquals(caducada.getKeyID(), almacen.activa(JWSAlgorithm.RS256).getKeyID());
+		assertEquals(2, almacen.jwkSet().getKeys().size());
+	}
+
+	private AlmacenClaves almacen(Path archivo) {
+		return new AlmacenClaves(archivo, ROTACION, PREAVISO, Duration.ofHours(1), DURACION_TOKEN);
+	}
+
+	private Path guardar(JWK... claves) throws Exception {
+		Path archivo = directorio.resolve("jwks.json");
+		Files.writeString(archivo, new JWKSet(List.of(claves)).toString(false), StandardCharsets.UTF_8);
+		return archivo;
+	}
+
+	private static JWK siguiente(AlmacenClaves almacen, Set<String> existentes) {
+		List<JWK> nuevas = new ArrayList<>(almacen.jwkSet().getKeys());
+		nuevas.removeIf(c -> existentes.contains(c.getKeyID()));
+		assertEquals(1, nuevas.size());
+		return nuevas.get(0);
+	}
+
+	private static Set<String> kids(AlmacenClaves almacen) {
+		return Set.copyOf(almacen.jwkSet().getKeys().stream().map(JWK::getKeyID).toList());
+	}
+
+	private static JWK clave(JWSAlgorithm algoritmo, Instant nbf, Instant exp) throws Exception {
+		JWKGenerator<? extends JWK> generador = JWSAlgorithm.RS256.equals(algoritmo)
+				? new RSAKeyGenerator(2048)
+				: new ECKeyGenerator(Curve.P_256);
+		generador.keyID(UUID.randomUUID().toString())
+				.keyUse(KeyUse.SIGNATURE)
+				.algorithm(algoritmo)
+				.issueTime(Date.from(nbf))
+				.notBeforeTime(Date.from(nbf));
+		if (exp != null) {
+			generador.expirationTime(Date.from(exp));
+		}
+		return generador.generate();
+	}
+}
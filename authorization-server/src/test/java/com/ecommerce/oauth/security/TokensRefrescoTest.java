@@ -0,0 +1,99 @@
+package com.ecommerce.oauth.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Refresh tokens firmados con un secreto fijo: firma, expiración, revocación y versión de credenciales.
+ */
+class TokensRefrescoTest {
+
+	private static final String SECRETO = Base64.getEncoder().encodeToString(new byte[32]);
+
+	private final RegistroRevocaciones revocaciones = new RegistroRevocaciones();
+
+	private final TokensRefresco tokens = new TokensRefresco(revocaciones, SECRETO, Duration.ofDays(7));
+
+	@Test
+	void unTokenEmitidoSeValidaConSuContenido() {
+		TokensRefresco.Contenido contenido = tokens.validar(tokens.emitir("marco", 42L));
+
+		assertEquals("marco", contenido.username());
+		assertEquals(42L, contenido.version());
+	}
+
+	@Test
+	void rechazaUnTokenManipulado() {
+		String token = tokens.emitir("marco", 42L);
+		int punto = token.indexOf('.');
+		byte[] carga = Base64.getUrlDecoder().decode(token.substring(0, punto));
+		// Otro usuario con la firma original
+		carga[carga.length - 1] ^= 1;
+		String manipulado = Base64.getUrlEncoder().withoutPadding().encodeToString(carga) + token.substring(punto);
+
+		assertThrows(BadCredentialsException.class, () -> tokens.validar(manipulado));
+		assertThrows(BadCredentialsException.class, () -> tokens.validar(token.substring(0, punto)));
+		assertThrows(BadCredentialsException.class, () -> tokens.validar("no-es-base64!.x"));
+	}
+
+	@Test
+	void rechazaUnTokenFirmadoConOtroSecreto() {
+		String otroSecreto = Base64.getEncoder().encodeToString("otro-secreto-de-al-menos-32-bytes".getBytes());
+		String ajeno = new TokensRefresco(revocaciones, otroSecreto, Duration.ofDays(7)).emitir("marco", 42L);
+
+		assertThrows(BadCredentialsException.class, () -> tokens.validar(ajeno));
+	}
+
+	@Test
+	void rechazaUnTokenCaducado() {
+		TokensRefresco caducados = new TokensRefresco(revocaciones, SECRETO, Duration.ofSeconds(-1));
+		String token = caducados.emitir("marco", 42L);
+
+		BadCredentialsException error = assertThrows(BadCredentialsException.class, () -> tokens.validar(token));
+		assertEquals("Refresh token caducado", error.getMessage());
+	}
+
+	@Test
+	void rechazaUnTokenRevocadoSinAfectarALosDemas() {
+		String revocado = tokens.emitir("marco", 42L);
+		String otro = tokens.emitir("marco", 42L);
+
+		tokens.revocar(revocado);
+
+		BadCredentialsException error = assertThrows(BadCredentialsException.class, () -> tokens.validar(revocado));
+		assertEquals("Refresh token revocado", error.getMessage());
+		assertEquals("marco", tokens.validar(otro).username());
+		assertEquals(1, revocaciones.tamano());
+	}
+
+	@Test
+	void noGuardaRevocacionesDeTokensCaducados() {
+		TokensRefresco caducados = new TokensRefresco(revocaciones, SECRETO, Duration.ofSeconds(-1));
+
+		caducados.revocar(caducados.emitir("marco", 42L));
+
+		assertEquals(0, revocaciones.tamano());
+	}
+
+	@Test
+	void laVersionCambiaConLaContrasenaYLosRoles() {
+		Set<SimpleGrantedAuthority> usuario = Set.of(new SimpleGrantedAuthority("ROLE_USER"));
+		Set<SimpleGrantedAuthority> admin = Set.of(new SimpleGrantedAuthority("ROLE_USER"),
+				new SimpleGrantedAuthority("ROLE_ADMIN"));
+		long version = TokensRefresco.version("$2a$10$hash", admin);
+
+		assertEquals(version, TokensRefresco.version("$2a$10$hash", Set.of(new SimpleGrantedAuthority("ROLE_ADMIN"),
+				new SimpleGrantedAuthority("ROLE_USER"))));
+		assertNotEquals(version, TokensRefresco.version("$2a$10$otro", admin));
+		assertNotEquals(version, TokensRefresco.version("$2a$10$hash", usuario));
+	}
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.oauth.services;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.ecommerce.oauth.repositories.UsuarioRepository;
+import com.ecommerce.oauth.security.EjecutorHashing;
+import com.ecommerce.oauth.security.EmisorTokens;
+import com.ecommerce.oauth.security.RegistroRevocaciones;
+import com.ecommerce.oauth.security.TokensRefresco;
+
+/**
+ * /api/refresh frente a cambios del usuario posteriores al login. El usuario sale de una
+ * caché simulada, igual que en producción.
+ */
+class AuthServiceImplTest {
+
+	private static final BCryptPasswordEncoder ENCODER = new BCryptPasswordEncoder(4);
+
+	private static final Set<GrantedAuthority> ADMIN = Set.of(new SimpleGrantedAuthority("ROLE_USER"),
+			new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+	private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+
+	private final EmisorTokens emisorTokens = mock(EmisorTokens.class);
+
+	private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+
+	private AuthServiceImpl authService;
+
+	private String hash;
+
+	@BeforeEach
+	void preparar() {
+		when(emisorTokens.duracion()).thenReturn(Duration.ofMinutes(15));
+		TokensRefresco tokensRefresco = new TokensRefresco(new RegistroRevocaciones(),
+				Base64.getEncoder().encodeToString(new byte[32]), Duration.ofDays(7));
+		authService = new AuthServiceImpl(userDetailsService, emisorTokens, tokensRefresco, ENCODER,
+				new EjecutorHashing(0, 16), usuarioRepository, 4);
+		hash = ENCODER.encode("clave");
+		cachear(hash, ADMIN);
+	}
+
+	@Test
+	void refrescaMientrasLasCredencialesNoCambian() {
+		String refreshToken = login();
+
+		assertNotNull(authService.refrescar(refreshToken));
+		assertNotNull(authService.refrescar(refreshToken));
+	}
+
+	@Test
+	void rechazaElRefreshTrasCambiarLaContrasena() {
+		String refreshToken = login();
+
+		cachear(ENCODER.encode("nueva"), ADMIN);
+
+		assertThrows(BadCredentialsException.class, () -> authService.refrescar(refreshToken));
+	}
+
+	@Test
+	void rechazaElRefreshTrasQuitarUnRol() {
+		String refreshToken = login();
+
+		cachear(hash, Set.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+		assertThrows(BadCredentialsException.class, () -> authService.refrescar(refreshToken));
+	}
+
+	@Test
+	void rechazaElRefreshDeUnUsuarioEliminado() {
+		String refreshToken = login();
+
+		when(userDetailsService.loadUserByUsername("marco")).thenThrow(new UsernameNotFoundException("marco"));
+
+		assertThrows(BadCredentialsException.class, () -> authService.refrescar(refreshToken));
+	}
+
+	@Test
+	void elTokenDeUnLoginQueRegeneraElHashValeConElHashNuevo() {
+		cachear(new BCryptPasswordEncoder(5).encode("clave"), ADMIN);
+		doAnswer(i -> {
+			cachear(i.getArgument(1), ADMIN);
+			return 1;
+		}).when(usuarioRepository).actualizarPassword(eq("marco"), anyString());
+
+		assertNotNull(authService.refrescar(login()));
+	}
+
+	private String login() {
+		return authService.authenticate("marco", "clave").join().refreshToken();
+	}
+
+	private void cachear(String hashPassword, Set<GrantedAuthority> autoridades) {
+		when(userDetailsService.loadUserByUsername("marco"))
+				.thenReturn(new User("marco", hashPassword, List.copyOf(autoridades)));
+	}
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.benchmarks.clientes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecommerce.clientes.entities.Cliente;
+import com.ecommerce.clientes.mappers.ClienteMapper;
+import com.ecommerce.commons.dto.ClientesRequest;
+import com.ecommerce.commons.dto.ClientesResponse;
+
+/**
+ * ClienteMapper en ambos sentidos y para una página de 100 clientes
+ * (el caso de /batch que usa msv-pedidos).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClienteMapperBenchmark {
+
+	private final ClienteMapper mapper = new ClienteMapper();
+
+	private ClientesRequest request;
+
+	private List<Cliente> clientes;
+
+	@Setup
+	public void preparar() {
+		request = new ClientesRequest("Cliente", "Apellido", "cliente@correo.com", "5512345678",
+				"Calle Falsa 123, CDMX");
+		clientes = LongStream.rangeClosed(1, 100).mapToObj(id -> {
+			Cliente cliente = new Cliente();
+			cliente.setId(id);
+			cliente.setNombre("Cliente " + id);
+			cliente.setApellido("Apellido");
+			cliente.setEmail("cliente" + id + "@correo.com");
+			cliente.setTelefono("5512345678");
+			cliente.setDireccion("Calle Falsa 123, CDMX");
+			return cliente;
+		}).toList();
+	}
+
+	@Benchmark
+	public ClientesResponse entityToResponse() {
+		return mapper.entityToResponse(clientes.get(0));
+	}
+
+	@Benchmark
+	public Cliente requestToEntity() {
+		return mapper.requestToEntity(request);
+	}
+
+	@Benchmark
+	public List<ClientesResponse> pagina() {
+		return clientes.stream().map(mapper::entityToResponse).toList();
+	}
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.benchmarks.feign;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecommerce.commons.configuration.ClienteHttpFeign;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+
+/**
+ * Prueba de carga del transporte de Feign contra un servidor HTTP local: 16 hilos
+ * llamando a la vez, como el fan-out de un listado de pedidos.
+ *
+ * - pool: Apache HttpClient 5 con el pool y los ajustes de commons (FeignClientConfig).
+ * - default: Client.Default de Feign (HttpURLConnection), el cliente anterior.
+ *
+ * Al final de cada iteración se imprimen las llamadas y las conexiones TCP distintas que
+ * vio el servidor (puertos de origen): con el pool deben ser como mucho tantas como hilos
+ * durante toda la prueba; con HttpURLConnection crecen cada vez que la carga se detiene
+ * (entre iteraciones) porque su caché keep-alive solo guarda 5 conexiones libres por
+ * destino (http.maxConnections) y cierra las demás.
+ *
+ * El servidor de pruebas del JDK escribe cabeceras y cuerpo por separado; sin TCP_NODELAY
+ * cada respuesta espera al ACK retardado (~40 ms) y ambos clientes miden lo mismo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(16)
+@State(Scope.Benchmark)
+public class ClienteHttpBenchmark {
+
+	private static final byte[] CUERPO = "{\"id\":1,\"nombre\":\"Producto 1\",\"precio\":10.5,\"stock\":100}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	interface Productos {
+		@RequestLine("GET /1")
+		String producto();
+	}
+
+	@Param({ "pool", "default" })
+	public String cliente;
+
+	private final Set<Integer> puertos = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong llamadas = new AtomicLong();
+
+	private HttpServer servidor;
+
+	private ExecutorService hilosServidor;
+
+	private CloseableHttpClient httpClient;
+
+	private Productos productos;
+
+	@Setup
+	public void preparar() throws IOException {
+		hilosServidor = Executors.newFixedThreadPool(32);
+		servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+		servidor.createContext("/", this::responder);
+		servidor.setExecutor(hilosServidor);
+		servidor.start();
+
+		Client client;
+		if ("pool".equals(cliente)) {
+			PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+					.setMaxConnTotal(100)
+					.setMaxConnPerRoute(30)
+					.setConnPoolPolicy(PoolReusePolicy.LIFO)
+					.build();
+			httpClient = ClienteHttpFeign.configurar(HttpClients.custom().setConnectionManager(pool),
+					Duration.ofSeconds(30), Duration.ofSeconds(20), false).build();
+			client = new ApacheHttp5Client(httpClient);
+		} else {
+			client = new Client.Default(null, null);
+		}
+		productos = Feign.builder()
+				.client(client)
+				.target(Productos.class, "http://localhost:" + servidor.getAddress().getPort());
+	}
+
+	@TearDown(Level.Iteration)
+	public void informar() {
+		System.out.println(cliente + ": " + llamadas.getAndSet(0) + " llamadas, "
+				+ puertos.size() + " conexiones distintas desde el inicio");
+	}
+
+	@TearDown
+	public void cerrar() throws IOException {
+		if (httpClient != null) {
+			httpClient.close();
+		}
+		servidor.stop(0);
+		hilosServidor.shutdownNow();
+	}
+
+	@Benchmark
+	public String llamada() {
+		return productos.producto();
+	}
+
+	private void responder(HttpExchange exchange) throws IOException {
+		puertos.add(exchange.getRemoteAddress().getPort());
+		llamadas.incrementAndGet();
+		exchange.getRequestBody().readAllBytes();
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, CUERPO.length);
+		try (OutputStream salida = exchange.getResponseBody()) {
+			salida.write(CUERPO);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.benchmarks.gateway;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.ecommerce.benchmarks.oauth.DatosAuth;
+import com.ecommerce.oauth.security.AlmacenClaves;
+import com.marco.gateway.security.CachingReactiveJwtDecoder;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Validación de un token repetido en el api-gateway: NimbusReactiveJwtDecoder
+ * (verifica la firma en cada petición) frente a CachingReactiveJwtDecoder.
+ * El token lo emite el EmisorTokens real del authorization-server.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtDecoderBenchmark {
+
+	@Param({ "RS256", "ES256" })
+	public String algoritmo;
+
+	private ReactiveJwtDecoder sinCache;
+
+	private ReactiveJwtDecoder conCache;
+
+	private String token;
+
+	@Setup
+	public void preparar() throws IOException {
+		AlmacenClaves almacenClaves = DatosAuth.almacenClaves();
+		token = DatosAuth.emisorTokens(almacenClaves, algoritmo)
+				.emitir(DatosAuth.USERNAME, Set.of(new SimpleGrantedAuthority("ROLE_USER")));
+		JWKSet publicas = almacenClaves.jwkSet().toPublicJWKSet();
+		sinCache = NimbusReactiveJwtDecoder.withJwkSource(jwt -> Flux.fromIterable(publicas.getKeys()))
+				.jwsAlgorithm(SignatureAlgorithm.from(JWSAlgorithm.parse(algoritmo).getName()))
+				.build();
+		conCache = new CachingReactiveJwtDecoder(sinCache, 10_000, Duration.ofMinutes(5));
+	}
+
+	@Benchmark
+	public Jwt sinCache() {
+		return sinCache.decode(token).block();
+	}
+
+	@Benchmark
+	public Jwt conCache() {
+		return conCache.decode(token).block();
+	}
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.benchmarks.oauth;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecommerce.oauth.dto.TokenResponse;
+import com.ecommerce.oauth.services.AuthServiceImpl;
+
+/**
+ * AuthServiceImpl.authenticate de extremo a extremo (caché de usuarios, BCrypt en su pool
+ * y firma del token) frente a /api/refresh, que no comprueba la contraseña.
+ * Varios hilos para que se note el límite del pool de BCrypt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AutenticacionBenchmark {
+
+	@Param({ "10" })
+	public int coste;
+
+	@Param({ "RS256" })
+	public String algoritmo;
+
+	private AuthServiceImpl authService;
+
+	private String refreshToken;
+
+	@Setup
+	public void preparar() throws IOException {
+		authService = DatosAuth.authService(coste, algoritmo);
+		refreshToken = authService.authenticate(DatosAuth.USERNAME, DatosAuth.PASSWORD).join().refreshToken();
+	}
+
+	@Benchmark
+	public TokenResponse login() {
+		return authService.authenticate(DatosAuth.USERNAME, DatosAuth.PASSWORD).join();
+	}
+
+	@Benchmark
+	public TokenResponse refresh() {
+		return authService.refrescar(refreshToken);
+	}
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.benchmarks.oauth;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Comprobaciones de BCrypt por segundo y por hilo según el coste (auth.bcrypt.coste).
+ * Multiplicado por el número de hilos de EjecutorHashing da el máximo de logins por segundo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptBenchmark {
+
+	@Param({ "8", "10", "12" })
+	public int coste;
+
+	private BCryptPasswordEncoder encoder;
+
+	private String hash;
+
+	@Setup
+	public void preparar() {
+		encoder = new BCryptPasswordEncoder(coste);
+		hash = encoder.encode(DatosAuth.PASSWORD);
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return encoder.matches(DatosAuth.PASSWORD, hash);
+	}
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.benchmarks.oauth;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.ecommerce.oauth.entities.Rol;
+import com.ecommerce.oauth.entities.Usuario;
+import com.ecommerce.oauth.repositories.RolRepository;
+import com.ecommerce.oauth.repositories.UsuarioRepository;
+import com.ecommerce.oauth.security.AlmacenClaves;
+import com.ecommerce.oauth.security.EjecutorHashing;
+import com.ecommerce.oauth.security.EmisorTokens;
+import com.ecommerce.oauth.security.RegistroRevocaciones;
+import com.ecommerce.oauth.security.TokensRefresco;
+import com.ecommerce.oauth.services.AuthServiceImpl;
+import com.ecommerce.oauth.services.CustomUserDetailsService;
+import com.ecommerce.oauth.services.RolesCache;
+
+/**
+ * Arma los componentes del login del authorization-server sin Spring ni BD:
+ * los repositorios son dobles en memoria y las claves se generan en un directorio temporal.
+ */
+public final class DatosAuth {
+
+	public static final String USERNAME = "usuario";
+
+	public static final String PASSWORD = "password123";
+
+	public static final Duration DURACION_TOKEN = Duration.ofMinutes(15);
+
+	private DatosAuth() {
+	}
+
+	public static AlmacenClaves almacenClaves() throws IOException {
+		return new AlmacenClaves(Files.createTempDirectory("jwks").resolve("jwks.json"),
+				Duration.ofDays(30), Duration.ofDays(1), Duration.ofHours(1), DURACION_TOKEN);
+	}
+
+	public static EmisorTokens emisorTokens(AlmacenClaves almacenClaves, String algoritmo) {
+		return new EmisorTokens(almacenClaves, algoritmo, "http://localhost:9000", DURACION_TOKEN);
+	}
+
+	public static AuthServiceImpl authService(int coste, String algoritmo) throws IOException {
+		Rol rol = new Rol();
+		rol.setId(1L);
+		rol.setNombre("ROLE_USER");
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		usuario.setUsername(USERNAME);
+		usuario.setPassword(new BCryptPasswordEncoder(coste).encode(PASSWORD));
+		usuario.setRoles(Set.of(rol));
+
+		UsuarioRepository usuarios = repositorio(UsuarioRepository.class, Map.of(
+				"findByUsername", args -> Optional.of(usuario).filter(u -> u.getUsername().equals(args[0])),
+				"actualizarPassword", args -> 0));
+		RolRepository roles = repositorio(RolRepository.class, Map.of(
+				"findAll", args -> List.of(rol)));
+
+		RolesCache rolesCache = new RolesCache(roles);
+		rolesCache.cargar();
+		CustomUserDetailsService userDetailsService = new CustomUserDetailsService(usuarios, rolesCache,
+				Duration.ofMinutes(5), 10_000);
+		TokensRefresco tokensRefresco = new TokensRefresco(new RegistroRevocaciones(), "", Duration.ofDays(7));
+		return new AuthServiceImpl(userDetailsService, emisorTokens(almacenClaves(), algoritmo), tokensRefresco,
+				new BCryptPasswordEncoder(coste), new EjecutorHashing(0, 1024), usuarios, coste);
+	}
+
+	// Doble de un repositorio Spring Data: solo responde a los métodos indicados
+	@SuppressWarnings("unchecked")
+	static <T> T repositorio(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+		return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (proxy, metodo, args) -> {
+			Function<Object[], Object> respuesta = metodos.get(metodo.getName());
+			if (respuesta != null) {
+				return respuesta.apply(args);
+			}
+			return switch (metodo.getName()) {
+				case "toString" -> tipo.getSimpleName();
+				case "hashCode" -> System.identityHashCode(proxy);
+				case "equals" -> proxy == args[0];
+				default -> throw new UnsupportedOperationException(metodo.getName());
+			};
+		});
+	}
+}
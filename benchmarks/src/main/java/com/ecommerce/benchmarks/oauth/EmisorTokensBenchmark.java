@@ -0,0 +1,51 @@
+package com.ecommerce.benchmarks.oauth;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.ecommerce.oauth.security.EmisorTokens;
+
+/**
+ * Tokens firmados por segundo y distribución de latencias (SampleTime reporta p50/p99/p99.9)
+ * para cada algoritmo de auth.jwt.algoritmo.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmisorTokensBenchmark {
+
+	@Param({ "RS256", "ES256" })
+	public String algoritmo;
+
+	private EmisorTokens emisorTokens;
+
+	private final Set<GrantedAuthority> autoridades = Set.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+	@Setup
+	public void preparar() throws IOException {
+		emisorTokens = DatosAuth.emisorTokens(DatosAuth.almacenClaves(), algoritmo);
+	}
+
+	@Benchmark
+	public String emitir() {
+		return emisorTokens.emitir(DatosAuth.USERNAME, autoridades);
+	}
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.benchmarks.pedidos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import com.ecommerce.commons.dto.ClientesResponse;
+import com.ecommerce.commons.dto.MovimientoStockRequest;
+import com.ecommerce.commons.dto.ProductoResponse;
+import com.ecommerce.msvpedidos.clients.ClientesClients;
+import com.ecommerce.msvpedidos.clients.ProductoClient;
+import com.ecommerce.msvpedidos.entities.Pedido;
+import com.ecommerce.msvpedidos.entities.ProductoPedido;
+
+/**
+ * Datos de prueba y dobles de los clientes Feign de msv-pedidos.
+ * Los dobles responden al instante: los benchmarks miden el coste de CPU del
+ * código propio, no la latencia de red.
+ */
+public final class DatosPedidos {
+
+	public static final int PRODUCTOS_POR_PEDIDO = 5;
+
+	private DatosPedidos() {
+	}
+
+	/**
+	 * Pedidos con ids consecutivos; con foto guardan nombre de cliente y de productos
+	 * (pedidos nuevos), sin foto obligan a consultar clientes y productos (pedidos antiguos).
+	 */
+	public static List<Pedido> pedidos(int cantidad, boolean conFoto) {
+		List<Pedido> pedidos = new ArrayList<>(cantidad);
+		for (long i = 1; i <= cantidad; i++) {
+			Pedido pedido = new Pedido();
+			pedido.setId(i);
+			pedido.setIdCliente(i % 20 + 1);
+			pedido.setEstado("CREADO");
+			pedido.setFechaCreacion(new Date());
+			if (conFoto) {
+				pedido.setNombreCliente("Cliente " + pedido.getIdCliente() + " Apellido");
+			}
+			for (long p = 0; p < PRODUCTOS_POR_PEDIDO; p++) {
+				ProductoPedido pp = new ProductoPedido();
+				pp.setId(i * 100 + p);
+				pp.setPedido(pedido);
+				pp.setIdProducto((i + p) % 100 + 1);
+				pp.setCantidad((int) p + 1);
+				pp.setPrecio(10.5 * (p + 1));
+				if (conFoto) {
+					pp.setNombre("Producto " + pp.getIdProducto());
+					pp.setDescripcion("Descripción del producto " + pp.getIdProducto());
+				}
+				pedido.getProductos().add(pp);
+			}
+			pedido.recalcularTotal();
+			pedidos.add(pedido);
+		}
+		return pedidos;
+	}
+
+	public static ProductoResponse producto(Long id) {
+		return new ProductoResponse(id, "Producto " + id, "Descripción del producto " + id, 10.5, 100);
+	}
+
+	public static ClientesResponse cliente(Long id) {
+		return new ClientesResponse(id, "Cliente " + id, "Apellido", "cliente" + id + "@correo.com",
+				"5512345678", "Calle Falsa 123, CDMX");
+	}
+
+	public static ProductoClient productoClient() {
+		return new ProductoClient() {
+			@Override
+			public ProductoResponse getProductoById(Long id) {
+				return producto(id);
+			}
+
+			@Override
+			public List<ProductoResponse> getProductosByIds(Collection<Long> ids) {
+				return ids.stream().map(DatosPedidos::producto).toList();
+			}
+
+			@Override
+			public void reservarStock(MovimientoStockRequest reserva) {
+			}
+
+			@Override
+			public void anularReserva(String idOperacion) {
+			}
+
+			@Override
+			public void liberarStock(MovimientoStockRequest devolucion) {
+			}
+		};
+	}
+
+	public static ClientesClients clientesClients() {
+		return new ClientesClients() {
+			@Override
+			public ClientesResponse getClienteById(Long id) {
+				return cliente(id);
+			}
+
+			@Override
+			public List<ClientesResponse> getClientesByIds(Collection<Long> ids) {
+				return ids.stream().map(DatosPedidos::cliente).toList();
+			}
+		};
+	}
+}
@@ -0,0 +1,200 @@
+package com.ecommerce.benchmarks.pedidos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.Query;
+
+import com.ecommerce.msvpedidos.repositories.PedidosRepository;
+
+/**
+ * Comprobaciones de integridad que msv-clientes y msv-productos hacen antes de eliminar
+ * (GET /id-cliente/{id} y /id-producto/{id}) sobre H2 en modo Oracle con datos sembrados.
+ *
+ * - antes: COUNT(*) sobre el esquema de V1, sin índices en ID_CLIENTE ni ID_PRODUCTOS.
+ * - despues: las consultas EXISTS de PedidosRepository (leídas de su @Query) con los índices
+ *   de V2 creados después de sembrar. El resto de migraciones no afecta a estas consultas
+ *   (y V3 es un bloque PL/SQL que H2 no ejecuta).
+ *
+ * Hay 100 clientes y 100 productos: las filas de cada uno crecen con {@code pedidos}.
+ * "antes" crece con la tabla; "despues" debe mantenerse constante.
+ * Cada invocación consulta un id distinto del anterior: H2 reutiliza el resultado de una
+ * consulta repetida con los mismos parámetros si las tablas no cambiaron, y con un id fijo
+ * solo se mediría esa caché.
+ * Las migraciones se leen de ../msv-pedidos (se puede cambiar con -Dmigraciones.pedidos=...).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ExistenciaPedidosBenchmark {
+
+	private static final int CLIENTES = 100;
+
+	private static final int PRODUCTOS = 100;
+
+	// Consultas anteriores de PedidosRepository
+	private static final String CONTEO_CLIENTE = "SELECT CASE WHEN COUNT(*) > 0 THEN 1 ELSE 0 END FROM PEDIDOS WHERE ID_CLIENTE = ?";
+
+	private static final String CONTEO_PRODUCTO = "SELECT COUNT(*) FROM PRODUCTOS_PEDIDOS WHERE ID_PRODUCTOS = ?";
+
+	@Param({ "antes", "despues" })
+	public String version;
+
+	@Param({ "10000", "100000", "1000000" })
+	public int pedidos;
+
+	private Connection conexion;
+
+	private PreparedStatement cliente;
+
+	private PreparedStatement producto;
+
+	private long invocacion;
+
+	@Setup
+	public void preparar() throws Exception {
+		conexion = DriverManager.getConnection("jdbc:h2:mem:existencia;MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+		migrar(1, 1);
+		sembrar();
+		boolean despues = "despues".equals(version);
+		if (despues) {
+			migrar(2, 2);
+		}
+		cliente = conexion.prepareStatement(despues ? consulta("existsByIdCliente") : CONTEO_CLIENTE);
+		producto = conexion.prepareStatement(despues ? consulta("existsByIdProducto") : CONTEO_PRODUCTO);
+	}
+
+	@TearDown
+	public void cerrar() throws SQLException {
+		try (Statement st = conexion.createStatement()) {
+			st.execute("DROP ALL OBJECTS");
+		}
+		conexion.close();
+	}
+
+	@Benchmark
+	public int clienteConPedidos() throws SQLException {
+		return ejecutar(cliente, invocacion++ % CLIENTES + 1);
+	}
+
+	@Benchmark
+	public int clienteSinPedidos() throws SQLException {
+		return ejecutar(cliente, CLIENTES + 1 + invocacion++ % CLIENTES);
+	}
+
+	@Benchmark
+	public int productoConPedidos() throws SQLException {
+		return ejecutar(producto, invocacion++ % PRODUCTOS + 1);
+	}
+
+	private static int ejecutar(PreparedStatement consulta, long id) throws SQLException {
+		consulta.setLong(1, id);
+		try (ResultSet rs = consulta.executeQuery()) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	// Parámetros con nombre de Spring Data (:id) a JDBC (?)
+	private static String consulta(String metodo) {
+		Query query = Stream.of(PedidosRepository.class.getMethods())
+				.filter(m -> m.getName().equals(metodo))
+				.findFirst()
+				.orElseThrow()
+				.getAnnotation(Query.class);
+		return query.value().replaceAll(":\\w+", "?");
+	}
+
+	// Un pedido con una línea por id; clientes y productos repartidos en orden para que
+	// las filas de un mismo id queden dispersas por la tabla, como en producción
+	private void sembrar() throws SQLException {
+		conexion.setAutoCommit(false);
+		Timestamp ahora = new Timestamp(System.currentTimeMillis());
+		try (PreparedStatement pedido = conexion.prepareStatement(
+				"INSERT INTO PEDIDOS (ID_PEDIDOS, ID_CLIENTE, TOTAL, FECHA_CREACION, ESTADO) VALUES (?, ?, ?, ?, 'CREADO')");
+				PreparedStatement linea = conexion.prepareStatement(
+						"INSERT INTO PRODUCTOS_PEDIDOS (ID_PRODUCTOS_PEDIDOS, ID_PEDIDOS, ID_PRODUCTOS, CANTIDAD, PRECIO)"
+								+ " VALUES (?, ?, ?, 1, 10.5)")) {
+			for (long id = 1; id <= pedidos; id++) {
+				pedido.setLong(1, id);
+				pedido.setLong(2, id % CLIENTES + 1);
+				pedido.setDouble(3, 10.5);
+				pedido.setTimestamp(4, ahora);
+				pedido.addBatch();
+				linea.setLong(1, id);
+				linea.setLong(2, id);
+				linea.setLong(3, id % PRODUCTOS + 1);
+				linea.addBatch();
+				if (id % 1000 == 0) {
+					pedido.executeBatch();
+					linea.executeBatch();
+				}
+			}
+			pedido.executeBatch();
+			linea.executeBatch();
+		}
+		conexion.commit();
+		conexion.setAutoCommit(true);
+	}
+
+	// Migraciones de msv-pedidos con versión entre desde y hasta, en orden
+	private void migrar(int desde, int hasta) throws IOException, SQLException {
+		Path directorio = Path.of(System.getProperty("migraciones.pedidos", "../msv-pedidos/src/main/resources/db/migration"));
+		List<Path> archivos;
+		try (Stream<Path> listado = Files.list(directorio)) {
+			archivos = listado.filter(p -> p.getFileName().toString().matches("V\\d+__.*\\.sql"))
+					.filter(p -> version(p) >= desde && version(p) <= hasta)
+					.sorted((a, b) -> Integer.compare(version(a), version(b)))
+					.toList();
+		}
+		try (Statement st = conexion.createStatement()) {
+			for (Path archivo : archivos) {
+				for (String sentencia : sentencias(Files.readString(archivo))) {
+					st.execute(sentencia);
+				}
+			}
+		}
+	}
+
+	private static int version(Path archivo) {
+		String nombre = archivo.getFileName().toString();
+		return Integer.parseInt(nombre.substring(1, nombre.indexOf("__")));
+	}
+
+	// Sentencias separadas por ';' sin las líneas de comentario
+	private static List<String> sentencias(String script) {
+		String sinComentarios = script.lines()
+				.filter(l -> !l.strip().startsWith("--"))
+				.reduce("", (a, b) -> a + b + "\n");
+		return Stream.of(sinComentarios.split(";"))
+				.map(String::strip)
+				.filter(s -> !s.isEmpty())
+				.toList();
+	}
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.benchmarks.pedidos;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecommerce.commons.configuration.FanOutExecutor;
+import com.ecommerce.commons.dto.PedidosResponse;
+import com.ecommerce.msvpedidos.clients.ClientesResolver;
+import com.ecommerce.msvpedidos.clients.ProductoCache;
+import com.ecommerce.msvpedidos.entities.Pedido;
+import com.ecommerce.msvpedidos.mappers.PedidoMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * PedidoMapper.entityToResponse / entitiesToResponse con ProductoClient y
+ * ClientesClients simulados.
+ *
+ * - conFoto=true: pedidos con nombre de cliente y productos guardados (sin llamadas).
+ * - conFoto=false: pedidos antiguos; pasan por el fan-out, ProductoCache y ClientesResolver.
+ *   El resolver se limpia en cada llamada porque en la aplicación vive una sola petición.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoMapperBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean conFoto;
+
+	@Param({ "50" })
+	public int tamanoPagina;
+
+	private PedidoMapper mapper;
+
+	private ClientesResolver clientesResolver;
+
+	private List<Pedido> pagina;
+
+	@Setup
+	public void preparar() {
+		ProductoCache productoCache = new ProductoCache(DatosPedidos.productoClient(), new SimpleMeterRegistry(),
+				Duration.ofMinutes(10), 10_000);
+		clientesResolver = new ClientesResolver(DatosPedidos.clientesClients());
+		mapper = new PedidoMapper(productoCache, clientesResolver, new FanOutExecutor(Duration.ofSeconds(5), 8));
+		pagina = DatosPedidos.pedidos(tamanoPagina, conFoto);
+	}
+
+	@Benchmark
+	public PedidosResponse unPedido() {
+		clientesResolver.limpiar();
+		return mapper.entityToResponse(pagina.get(0));
+	}
+
+	@Benchmark
+	public List<PedidosResponse> pagina() {
+		clientesResolver.limpiar();
+		return mapper.entitiesToResponse(pagina);
+	}
+}
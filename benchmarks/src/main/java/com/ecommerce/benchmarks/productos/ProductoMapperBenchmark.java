@@ -0,0 +1,70 @@
+package com.ecommerce.benchmarks.productos;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecommerce.commons.dto.ProductoRequest;
+import com.ecommerce.commons.dto.ProductoResponse;
+import com.ecommerce.productos.entities.Producto;
+import com.ecommerce.productos.mappers.ProductoMapper;
+
+/**
+ * ProductoMapper en ambos sentidos y para una página de 100 productos
+ * (el caso de /batch y del listado).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductoMapperBenchmark {
+
+	private final ProductoMapper mapper = new ProductoMapper();
+
+	private ProductoRequest request;
+
+	private List<Producto> productos;
+
+	@Setup
+	public void preparar() {
+		request = new ProductoRequest("Producto de prueba número 1", "Descripción larga del producto de prueba",
+				99.9, 10);
+		productos = LongStream.rangeClosed(1, 100).mapToObj(id -> {
+			Producto producto = new Producto();
+			producto.setId(id);
+			producto.setNombre("Producto " + id);
+			producto.setDescripcion("Descripción del producto " + id);
+			producto.setPrecio(10.5 * id);
+			producto.setStock((int) id);
+			return producto;
+		}).toList();
+	}
+
+	@Benchmark
+	public ProductoResponse entityToResponse() {
+		return mapper.entityToResponse(productos.get(0));
+	}
+
+	@Benchmark
+	public Producto requestToEntity() {
+		return mapper.requestToEntity(request);
+	}
+
+	@Benchmark
+	public List<ProductoResponse> pagina() {
+		return productos.stream().map(mapper::entityToResponse).toList();
+	}
+}
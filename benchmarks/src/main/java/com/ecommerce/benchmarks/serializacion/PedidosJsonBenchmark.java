@@ -0,0 +1,105 @@
+package com.ecommerce.benchmarks.serializacion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.ecommerce.benchmarks.pedidos.DatosPedidos;
+import com.ecommerce.commons.dto.PedidosRequest;
+import com.ecommerce.commons.dto.PedidosResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Serialización Jackson de PedidosResponse con un ObjectMapper configurado como el de
+ * Spring Boot: respuesta de un pedido, listado como arreglo y exportación NDJSON.
+ * También la lectura de una carga masiva (arreglo de PedidosRequest).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidosJsonBenchmark {
+
+	private static final TypeReference<List<PedidosRequest>> LISTA_REQUESTS = new TypeReference<>() {
+	};
+
+	@Param({ "50" })
+	public int tamanoPagina;
+
+	private ObjectMapper objectMapper;
+
+	private ObjectWriter writerPedido;
+
+	private List<PedidosResponse> pagina;
+
+	private byte[] cargaMasiva;
+
+	@Setup
+	public void preparar() throws IOException {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		writerPedido = objectMapper.writerFor(PedidosResponse.class);
+		pagina = DatosPedidos.pedidos(tamanoPagina, true).stream()
+				.map(p -> new PedidosResponse(p.getId(), p.getIdCliente(), p.getNombreCliente(), p.getTotal(),
+						"01/01/2025", p.getEstado(),
+						p.getProductos().stream()
+								.<Map<String, Object>>map(pp -> Map.of(
+										"id", pp.getIdProducto(),
+										"nombre", pp.getNombre(),
+										"descripcion", pp.getDescripcion(),
+										"precio", pp.getPrecio(),
+										"cantidad", pp.getCantidad()))
+								.toList()))
+				.toList();
+		List<PedidosRequest> requests = DatosPedidos.pedidos(tamanoPagina, false).stream()
+				.map(p -> new PedidosRequest(p.getIdCliente(), p.getEstado(), p.getProductos().stream()
+						.map(pp -> new PedidosRequest.ProductoData(pp.getIdProducto(), pp.getCantidad(), pp.getPrecio()))
+						.toList()))
+				.toList();
+		cargaMasiva = objectMapper.writeValueAsBytes(requests);
+	}
+
+	@Benchmark
+	public byte[] unPedido() throws IOException {
+		return writerPedido.writeValueAsBytes(pagina.get(0));
+	}
+
+	@Benchmark
+	public byte[] listado() throws IOException {
+		return objectMapper.writeValueAsBytes(pagina);
+	}
+
+	// Igual que PedidosServiceImpl.exportar: un JSON por línea sobre el mismo stream
+	@Benchmark
+	public int exportacionNdjson() throws IOException {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream(64 * 1024);
+		for (PedidosResponse pedido : pagina) {
+			writerPedido.writeValue(salida, pedido);
+			salida.write('\n');
+		}
+		return salida.size();
+	}
+
+	@Benchmark
+	public List<PedidosRequest> lecturaCargaMasiva() throws IOException {
+		return objectMapper.readValue(cargaMasiva, LISTA_REQUESTS);
+	}
+}
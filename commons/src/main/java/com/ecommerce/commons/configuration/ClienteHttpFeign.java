@@ -0,0 +1,39 @@
+package com.ecommerce.commons.configuration;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * Ajustes del cliente Apache HttpClient 5 que usan los clientes Feign.
+ *
+ * El pool (máximo total y por ruta, TTL, política de reutilización) lo crea Spring Cloud
+ * OpenFeign con spring.cloud.openfeign.httpclient.*; aquí se añade lo que no expone:
+ * - keep-alive: una conexión libre se reutiliza como mucho durante {@code keepAlive},
+ *   o menos si el servidor anuncia un Keep-Alive menor.
+ * - cierre en segundo plano de las conexiones inactivas más de {@code inactividad}, antes
+ *   de que las cierre el otro extremo y la siguiente petición falle al reutilizarlas.
+ * - compresión: si está desactivada no se envía Accept-Encoding y las respuestas
+ *   llegan sin comprimir.
+ */
+public final class ClienteHttpFeign {
+
+    private ClienteHttpFeign() {
+    }
+
+    public static HttpClientBuilder configurar(HttpClientBuilder builder, Duration keepAlive,
+            Duration inactividad, boolean compresion) {
+        TimeValue maximo = TimeValue.ofMilliseconds(keepAlive.toMillis());
+        builder.setKeepAliveStrategy((response, context) -> {
+            TimeValue anunciado = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return TimeValue.isPositive(anunciado) && anunciado.compareTo(maximo) < 0 ? anunciado : maximo;
+        });
+        builder.evictIdleConnections(TimeValue.ofMilliseconds(inactividad.toMillis()));
+        if (!compresion) {
+            builder.disableContentCompression();
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.commons.configuration;
+
+import com.ecommerce.commons.exceptions.ServicioNoDisponibleException;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+/**
+ * Utilidades para los FallbackFactory de los clientes Feign.
+ *
+ * Solo se degrada la respuesta cuando el servicio remoto no está disponible; un 4xx
+ * (petición incorrecta, no autorizado, no encontrado...) se propaga tal cual.
+ */
+public final class FallbackFeign {
+
+    private FallbackFeign() {
+    }
+
+    /**
+     * Indica si la causa es una indisponibilidad del servicio remoto: circuito abierto,
+     * bulkhead lleno, sin respuesta (timeout/conexión) o respuesta 5xx.
+     */
+    public static boolean indisponible(Throwable causa) {
+        return causa instanceof CallNotPermittedException
+                || causa instanceof BulkheadFullException
+                || causa instanceof RetryableException
+                || causa instanceof FeignException.FeignServerException;
+    }
+
+    /**
+     * Indica si la llamada ni siquiera se envió (circuito abierto o bulkhead lleno), así
+     * que el servicio remoto no pudo aplicarla.
+     */
+    public static boolean noEnviada(Throwable causa) {
+        return causa instanceof CallNotPermittedException || causa instanceof BulkheadFullException;
+    }
+
+    /**
+     * Devuelve la causa para relanzarla desde un fallback que no puede degradar.
+     */
+    public static RuntimeException propagar(Throwable causa) {
+        if (causa instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new ServicioNoDisponibleException("Error al llamar al servicio remoto", causa);
+    }
+}
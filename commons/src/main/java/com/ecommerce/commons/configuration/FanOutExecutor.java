@@ -0,0 +1,213 @@
+package com.ecommerce.commons.configuration;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.ecommerce.commons.exceptions.ServicioRemotoTimeoutException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ejecuta en paralelo las llamadas remotas de una petición (fan-out) y las espera
+ * con un plazo común a toda la petición.
+ *
+ * - En Java 21+ usa un hilo virtual por tarea; en Java 17 usa un pool fijo de hilos.
+ * - Cada tarea se ejecuta con los RequestAttributes del hilo que la envía, por lo que
+ *   el RequestInterceptor de FeignClientConfig sigue propagando el Authorization y los
+ *   beans con alcance de petición siguen disponibles fuera del hilo de Tomcat.
+ * - El plazo (commons.fan-out.plazo) empieza a contar con la primera espera de la
+ *   petición; las siguientes esperas solo disponen del tiempo restante
+ *   (ver {@link #reiniciarPlazo()} para procesos por bloques).
+ * - Al agotarse el plazo las tareas se cancelan con interrupción: las que siguen en
+ *   cola no llegan a ejecutarse y las que esperan un permiso (bulkhead) se liberan.
+ *   Una lectura de socket ya en curso no se interrumpe en Java 17; la acota el
+ *   read-timeout de Feign (commons-feign.properties), que debe ser menor que el plazo.
+ */
+@Component
+public class FanOutExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(FanOutExecutor.class.getName());
+
+    // Atributo de la petición donde se guarda el instante límite compartido
+    private static final String ATRIBUTO_PLAZO = FanOutExecutor.class.getName() + ".PLAZO";
+
+    private final ExecutorService executor;
+
+    private final Duration plazo;
+
+    public FanOutExecutor(@Value("${commons.fan-out.plazo:5s}") Duration plazo,
+            @Value("${commons.fan-out.hilos:32}") int hilos) {
+        this.plazo = plazo;
+        this.executor = crearExecutor(hilos);
+    }
+
+    /**
+     * Envía una tarea con valor de retorno; no bloquea.
+     */
+    public <T> CompletableFuture<T> enviar(Supplier<T> tarea) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        TareaRemota<T> resultado = new TareaRemota<>();
+        resultado.enCurso(executor.submit(() -> {
+            try {
+                resultado.complete(conContexto(atributos, tarea));
+            } catch (Throwable e) {
+                resultado.completeExceptionally(e);
+            }
+        }));
+        return resultado;
+    }
+
+    /**
+     * Envía una tarea sin valor de retorno; no bloquea.
+     */
+    public CompletableFuture<Void> ejecutar(Runnable tarea) {
+        return enviar(() -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    /**
+     * Espera a que terminen todas las tareas dentro del plazo de la petición.
+     * Si alguna falla se relanza su excepción original (p. ej. FeignException) para
+     * que el GlobalExceptionHandler responda igual que en la ejecución secuencial.
+     *
+     * @throws ServicioRemotoTimeoutException si se agota el plazo
+     */
+    public void esperar(CompletableFuture<?>... tareas) {
+        CompletableFuture<Void> todas = CompletableFuture.allOf(tareas);
+        try {
+            todas.get(tiempoRestante().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelar(tareas);
+            throw new ServicioRemotoTimeoutException("Los servicios remotos no respondieron dentro de " + plazo, e);
+        } catch (InterruptedException e) {
+            cancelar(tareas);
+            Thread.currentThread().interrupt();
+            throw new ServicioRemotoTimeoutException("Se interrumpió la espera de los servicios remotos", e);
+        } catch (ExecutionException e) {
+            cancelar(tareas);
+            throw relanzar(e.getCause());
+        }
+    }
+
+    /**
+     * Reinicia el plazo de la petición actual. Lo usan los procesos largos por bloques
+     * (exportación, carga masiva) para que cada bloque disponga del plazo completo.
+     */
+    public void reiniciarPlazo() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.removeAttribute(ATRIBUTO_PLAZO, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        executor.shutdown();
+    }
+
+    private Duration tiempoRestante() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return plazo;
+        }
+        Instant limite = (Instant) atributos.getAttribute(ATRIBUTO_PLAZO, RequestAttributes.SCOPE_REQUEST);
+        if (limite == null) {
+            limite = Instant.now().plus(plazo);
+            atributos.setAttribute(ATRIBUTO_PLAZO, limite, RequestAttributes.SCOPE_REQUEST);
+        }
+        Duration restante = Duration.between(Instant.now(), limite);
+        return restante.isNegative() ? Duration.ZERO : restante;
+    }
+
+    private static <T> T conContexto(RequestAttributes atributos, Supplier<T> tarea) {
+        RequestAttributes previos = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(atributos);
+        try {
+            return tarea.get();
+        } finally {
+            if (previos == null) {
+                RequestContextHolder.resetRequestAttributes();
+            } else {
+                RequestContextHolder.setRequestAttributes(previos);
+            }
+        }
+    }
+
+    private static void cancelar(CompletableFuture<?>... tareas) {
+        for (CompletableFuture<?> tarea : tareas) {
+            tarea.cancel(true);
+        }
+    }
+
+    /**
+     * CompletableFuture cuya cancelación también cancela, con interrupción, la tarea
+     * enviada al executor (CompletableFuture.cancel por sí solo no la detiene).
+     */
+    private static final class TareaRemota<T> extends CompletableFuture<T> {
+
+        private volatile Future<?> ejecucion;
+
+        void enCurso(Future<?> ejecucion) {
+            this.ejecucion = ejecucion;
+            // Cancelada antes de conocer su Future
+            if (isCancelled()) {
+                ejecucion.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean interrumpir) {
+            boolean cancelada = super.cancel(interrumpir);
+            Future<?> actual = ejecucion;
+            if (actual != null) {
+                actual.cancel(true);
+            }
+            return cancelada;
+        }
+    }
+
+    private static RuntimeException relanzar(Throwable causa) {
+        if (causa instanceof CompletionException && causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        if (causa instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(causa);
+    }
+
+    // Hilos virtuales si la JVM los soporta (se invocan por reflexión porque el proyecto compila con Java 17)
+    private static ExecutorService crearExecutor(int hilos) {
+        if (Runtime.version().feature() >= 21) {
+            try {
+                Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) fabrica.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.WARNING, "No se pudieron crear hilos virtuales, se usará un pool fijo: " + e.getMessage());
+            }
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("fan-out-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(hilos, threadFactory);
+    }
+}
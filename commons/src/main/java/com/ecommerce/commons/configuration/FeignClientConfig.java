@@ -1,12 +1,25 @@
 package com.ecommerce.commons.configuration;
 
+import java.time.Duration;
+
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import feign.Capability;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
 import jakarta.servlet.http.HttpServletRequest;
 
 @Configuration
@@ -29,4 +42,31 @@ public class FeignClientConfig {
 		};
 	}
 
+	// Métricas por cliente/método/status de todas las llamadas Feign (ver MetricasFeign).
+	// Sin actuator no hay MeterRegistry en el contexto y se usa el registro global.
+	@Bean
+	Capability metricasFeign(ObjectProvider<MeterRegistry> registry) {
+		return new MetricasFeign(registry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+	// Keep-alive, cierre de conexiones inactivas y compresión del cliente HC5 de Feign (ver ClienteHttpFeign)
+	@Bean
+	HttpClientBuilderCustomizer clienteHttpFeign(
+			@Value("${commons.feign.keep-alive:30s}") Duration keepAlive,
+			@Value("${commons.feign.inactividad:20s}") Duration inactividad,
+			@Value("${commons.feign.compresion:false}") boolean compresion) {
+		return builder -> ClienteHttpFeign.configurar(builder, keepAlive, inactividad, compresion);
+	}
+
+	// Ocupación del pool: httpcomponents.httpclient.pool.total.connections (state=leased|available),
+	// .total.pending (peticiones esperando conexión = pool saturado) y .total.max
+	@Bean
+	MeterBinder metricasPoolFeign(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+		return registry -> {
+			if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+				new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign", Tags.empty()).bindTo(registry);
+			}
+		};
+	}
+
 }
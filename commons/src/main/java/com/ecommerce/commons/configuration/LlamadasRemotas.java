@@ -0,0 +1,51 @@
+package com.ecommerce.commons.configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Contador de llamadas Feign hechas durante la petición HTTP actual.
+ *
+ * El contador solo existe si la petición lo inició con {@link #iniciar()}; así el
+ * resto de peticiones no pagan nada. Como FanOutExecutor propaga los RequestAttributes,
+ * también se cuentan las llamadas hechas en paralelo desde otros hilos.
+ */
+public final class LlamadasRemotas {
+
+    private static final String ATRIBUTO = LlamadasRemotas.class.getName() + ".CONTADOR";
+
+    private LlamadasRemotas() {
+    }
+
+    public static void iniciar() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.setAttribute(ATRIBUTO, new AtomicInteger(), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static void incrementar() {
+        AtomicInteger contador = contador();
+        if (contador != null) {
+            contador.incrementAndGet();
+        }
+    }
+
+    /**
+     * Llamadas contadas desde {@link #iniciar()}, o -1 si la petición no las cuenta.
+     */
+    public static int total() {
+        AtomicInteger contador = contador();
+        return contador != null ? contador.get() : -1;
+    }
+
+    private static AtomicInteger contador() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return null;
+        }
+        return (AtomicInteger) atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.commons.configuration;
+
+import java.io.IOException;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Capability de Feign que mide todas las llamadas de los clientes Feign del servicio
+ * (ProductoClient, ClientesClients, PedidoClient, PedidosClients...).
+ *
+ * - feign.cliente.llamadas (timer, con histograma de percentiles): tags cliente, metodo y status
+ *   (status=IO si no hubo respuesta).
+ * - feign.cliente.fallos (counter): llamadas sin respuesta (tipo=io) o con respuesta 5xx (tipo=5xx).
+ * - feign.cliente.reintentos (counter): reintentos concedidos por el Retryer.
+ * - Incrementa el contador de {@link LlamadasRemotas} de la petición actual.
+ */
+public class MetricasFeign implements Capability {
+
+    private static final String DESCONOCIDO = "desconocido";
+
+    private final MeterRegistry registry;
+
+    public MetricasFeign(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> medir(client, request, options);
+    }
+
+    @Override
+    public Retryer enrich(Retryer retryer) {
+        return new RetryerMedido(retryer);
+    }
+
+    private Response medir(Client client, Request request, Request.Options options) throws IOException {
+        Tags tags = tags(request);
+        LlamadasRemotas.incrementar();
+        Timer.Sample muestra = Timer.start(registry);
+        String status = "IO";
+        try {
+            Response response = client.execute(request, options);
+            status = String.valueOf(response.status());
+            if (response.status() >= 500) {
+                fallo(tags, "5xx");
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            fallo(tags, "io");
+            throw e;
+        } finally {
+            muestra.stop(Timer.builder("feign.cliente.llamadas")
+                    .description("Duración de las llamadas Feign por cliente, método y status")
+                    .tags(tags.and("status", status))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    private void fallo(Tags tags, String tipo) {
+        Counter.builder("feign.cliente.fallos")
+                .description("Llamadas Feign sin respuesta o con respuesta 5xx")
+                .tags(tags.and("tipo", tipo))
+                .register(registry)
+                .increment();
+    }
+
+    private static Tags tags(Request request) {
+        RequestTemplate template = request != null ? request.requestTemplate() : null;
+        String cliente = template != null && template.feignTarget() != null
+                ? template.feignTarget().name() : DESCONOCIDO;
+        String metodo = template != null && template.methodMetadata() != null
+                ? template.methodMetadata().configKey() : DESCONOCIDO;
+        return Tags.of("cliente", cliente, "metodo", metodo);
+    }
+
+    // Retryer de Feign con estado por llamada: clone() debe devolver otro envoltorio
+    private final class RetryerMedido implements Retryer {
+
+        private final Retryer delegado;
+
+        RetryerMedido(Retryer delegado) {
+            this.delegado = delegado;
+        }
+
+        @Override
+        public void continueOrPropagate(RetryableException e) {
+            delegado.continueOrPropagate(e);
+            // Si no lanzó la excepción, Feign reintenta la llamada
+            Counter.builder("feign.cliente.reintentos")
+                    .description("Reintentos de llamadas Feign")
+                    .tags(tags(e.request()))
+                    .register(registry)
+                    .increment();
+        }
+
+        @Override
+        public Retryer clone() {
+            return new RetryerMedido(delegado.clone());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.commons.configuration;
+
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Timeouts, circuit breaker y bulkhead de todos los clientes Feign.
+ *
+ * Los valores por defecto están en commons-feign.properties; como es un @PropertySource,
+ * cualquier servicio puede sobrescribirlos en su application.properties, también por
+ * cliente (p. ej. resilience4j.circuitbreaker.instances.msv-clientes.*).
+ */
+@Configuration
+@PropertySource("classpath:commons-feign.properties")
+public class ResilienciaFeignConfig {
+
+    // Un circuito y un bulkhead por servicio remoto (msv-clientes, msv-productos...)
+    // en lugar de uno por método: si el servicio cae, caen todos sus métodos
+    @Bean
+    CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+}
@@ -11,10 +11,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.ecommerce.commons.dto.PaginaResponse;
+import com.ecommerce.commons.exceptions.ParametrosInvalidosException;
 import com.ecommerce.commons.services.CommonService;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 
 /**
@@ -48,6 +54,36 @@ public class CommonController<RQ, RS, S extends CommonService<RQ, RS>> {
         return ResponseEntity.ok(service.listar());
     }
 
+    /**
+     * Endpoint para listar por páginas.
+     * - Sin "page": paginación por cursor, ej. /paginado?after=120&limit=50
+     *   (la respuesta trae siguienteCursor para pedir la siguiente página).
+     * - Con "page": paginación por número de página, ej. /paginado?page=3&limit=50
+     * - "after" y "page" son excluyentes: si llegan los dos se responde 400.
+     * @param after id del último registro recibido (solo modo cursor)
+     * @param page número de página empezando en 0 (solo modo offset)
+     * @param limit tamaño de página (1 a 500)
+     * @param sort orden por id: asc o desc
+     * @return ResponseEntity con la página solicitada y status 200 OK
+     * @throws ParametrosInvalidosException si llegan after y page a la vez
+     */
+    @GetMapping("/paginado")
+    public ResponseEntity<PaginaResponse<RS>> listarPaginado(
+            @RequestParam(required = false) @Positive(message = "El cursor debe ser positivo") Long after,
+            @RequestParam(required = false) @Min(value = 0, message = "La página no puede ser negativa") Integer page,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "El límite debe ser al menos 1")
+            @Max(value = 500, message = "El límite no puede ser mayor a 500") int limit,
+            @RequestParam(defaultValue = "asc") @Pattern(regexp = "asc|desc", message = "El orden debe ser asc o desc") String sort) {
+        if (after != null && page != null) {
+            throw new ParametrosInvalidosException("after y page son excluyentes");
+        }
+        boolean descendente = "desc".equals(sort);
+        if (page != null) {
+            return ResponseEntity.ok(service.listarPorPagina(page, limit, descendente));
+        }
+        return ResponseEntity.ok(service.listarPorCursor(after, limit, descendente));
+    }
+
     /**
      * Endpoint para obtener un registro por su ID.
      * @param id ID del registro a buscar (debe ser positivo)
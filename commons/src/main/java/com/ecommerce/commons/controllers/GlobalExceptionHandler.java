@@ -5,16 +5,24 @@ import java.util.NoSuchElementException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.springframework.cloud.client.circuitbreaker.NoFallbackAvailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.ecommerce.commons.exceptions.EntidadRelacionadaException;
+import com.ecommerce.commons.exceptions.ParametrosInvalidosException;
+import com.ecommerce.commons.exceptions.ServicioNoDisponibleException;
+import com.ecommerce.commons.exceptions.ServicioRemotoTimeoutException;
 
 import feign.FeignException;
 import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import jakarta.validation.ConstraintViolationException;
 
 // Responda en caso de que haya excepciones (manejo global para controladores REST)
@@ -60,6 +68,26 @@ public class GlobalExceptionHandler {
         ));
     } 
     
+    // El cuerpo de la petición no es un JSON/NDJSON válido
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
+        LOGGER.log(Level.WARNING, "Cuerpo de la petición ilegible: " + e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of(
+                "code", HttpStatus.BAD_REQUEST.value(),
+                "response", "El cuerpo de la petición no tiene un formato válido."
+        ));
+    }
+
+    // Parámetros válidos por separado pero incompatibles entre sí
+    @ExceptionHandler(ParametrosInvalidosException.class)
+    public ResponseEntity<Map<String, Object>> handleParametrosInvalidosException(ParametrosInvalidosException e) {
+        LOGGER.log(Level.WARNING, "Parámetros incompatibles: " + e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of(
+                "code", HttpStatus.BAD_REQUEST.value(),
+                "response", e.getMessage()
+        ));
+    }
+
     // No se encontró el recurso solicitado (por ejemplo Optional.get() en vacío)
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<Map<String, Object>> handleNoSuchElementException(NoSuchElementException e) {
@@ -95,6 +123,7 @@ public class GlobalExceptionHandler {
             case 401 -> "No autorizado para acceder al servicio remoto.";
             case 403 -> "Acceso prohibido al servicio remoto.";
             case 404 -> "Recurso no encontrado en el servicio remoto.";
+            case 409 -> "Conflicto en el servicio remoto (p. ej. stock insuficiente).";
             case 503 -> "Servicio remoto no disponible.";
             default -> "Error al comunicarse con el servicio remoto.";
         };
@@ -117,6 +146,45 @@ public class GlobalExceptionHandler {
         ));
     }
     
+    // Las llamadas remotas en paralelo no terminaron dentro del plazo de la petición
+    @ExceptionHandler(ServicioRemotoTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleServicioRemotoTimeout(ServicioRemotoTimeoutException e) {
+        LOGGER.log(Level.SEVERE, "Plazo agotado esperando servicios remotos: " + e.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of(
+                "code", HttpStatus.GATEWAY_TIMEOUT.value(),
+                "response", "Los servicios remotos no respondieron a tiempo."
+        ));
+    }
+    
+    // Circuito abierto o bulkhead lleno: no se llegó a llamar al servicio remoto
+    @ExceptionHandler({ CallNotPermittedException.class, BulkheadFullException.class,
+            ServicioNoDisponibleException.class })
+    public ResponseEntity<Map<String, Object>> handleServicioNoDisponible(RuntimeException e) {
+        LOGGER.log(Level.WARNING, "Servicio remoto no disponible: " + e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .body(Map.of(
+                        "code", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "response", "El servicio remoto no está disponible en este momento."
+                ));
+    }
+
+    // Clientes Feign sin fallback: el circuit breaker envuelve el error original
+    @ExceptionHandler(NoFallbackAvailableException.class)
+    public ResponseEntity<Map<String, Object>> handleNoFallbackAvailable(NoFallbackAvailableException e) {
+        Throwable causa = e.getCause();
+        if (causa instanceof RetryableException retryable) {
+            return handleRetryable(retryable);
+        }
+        if (causa instanceof FeignException feign) {
+            return handleGenericFeignException(feign);
+        }
+        if (causa instanceof CallNotPermittedException || causa instanceof BulkheadFullException) {
+            return handleServicioNoDisponible((RuntimeException) causa);
+        }
+        return handleGeneralException(causa instanceof Exception exception ? exception : e);
+    }
+    
     // Cualquier otro error que no esté registrado
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralException(Exception e) {
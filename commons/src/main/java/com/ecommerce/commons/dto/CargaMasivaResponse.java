@@ -0,0 +1,40 @@
+package com.ecommerce.commons.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva: un elemento por registro recibido, en el mismo orden.
+ * Los registros que fallan no impiden que se guarden los demás.
+ */
+public record CargaMasivaResponse(
+		int total,
+		int exitosos,
+		int fallidos,
+		List<Resultado> resultados
+) {
+
+	/**
+	 * @param indice posición del registro en la carga (empezando en 0)
+	 * @param id     id asignado si se guardó; null si falló
+	 * @param error  motivo del fallo; null si se guardó
+	 */
+	public record Resultado(int indice, Long id, String error) {
+
+		public static Resultado exito(int indice, Long id) {
+			return new Resultado(indice, id, null);
+		}
+
+		public static Resultado fallo(int indice, String error) {
+			return new Resultado(indice, null, error);
+		}
+
+		public boolean exitoso() {
+			return error == null;
+		}
+	}
+
+	public static CargaMasivaResponse de(List<Resultado> resultados) {
+		int exitosos = (int) resultados.stream().filter(Resultado::exitoso).count();
+		return new CargaMasivaResponse(resultados.size(), exitosos, resultados.size() - exitosos, resultados);
+	}
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.commons.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+// Reserva o devolución de stock; idOperacion la hace idempotente (la genera quien llama)
+public record MovimientoStockRequest(
+		@NotBlank(message = "El id de la operación es obligatorio")
+		@Size(max = 36, message = "El id de la operación no puede superar 36 caracteres")
+		String idOperacion,
+
+		@NotEmpty(message = "Debe haber al menos una línea")
+		List<@Valid StockRequest> lineas
+) {
+}
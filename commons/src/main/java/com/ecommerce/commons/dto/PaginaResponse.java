@@ -0,0 +1,49 @@
+package com.ecommerce.commons.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sobre de respuesta para los listados paginados.
+ *
+ * - Modo cursor (keyset): se llena siguienteCursor con el id a enviar como
+ *   "after" en la siguiente petición; pagina y totalElementos van en null.
+ * - Modo offset: se llenan pagina y totalElementos; siguienteCursor va en null.
+ *
+ * @param <T> Tipo del DTO de salida contenido en la página
+ */
+public record PaginaResponse<T>(
+		List<T> contenido,
+		int limite,
+		Long siguienteCursor,
+		Integer pagina,
+		Long totalElementos,
+		boolean hayMas
+) {
+
+	/**
+	 * Construye una página en modo cursor a partir de las filas leídas.
+	 * Las implementaciones consultan limite + 1 filas: si llega la fila extra
+	 * se sabe que hay más registros sin necesidad de un COUNT(*).
+	 *
+	 * @param filas  entidades leídas (como máximo limite + 1), ya ordenadas
+	 * @param limite tamaño de página solicitado
+	 * @param id     función que obtiene el id (cursor) de una entidad
+	 * @param mapper conversión de la lista de entidades a DTOs
+	 */
+	public static <E, T> PaginaResponse<T> deCursor(List<E> filas, int limite,
+			Function<E, Long> id, Function<List<E>, List<T>> mapper) {
+		boolean hayMas = filas.size() > limite;
+		List<E> pagina = hayMas ? filas.subList(0, limite) : filas;
+		Long siguienteCursor = hayMas ? id.apply(pagina.get(pagina.size() - 1)) : null;
+		return new PaginaResponse<>(mapper.apply(pagina), limite, siguienteCursor, null, null, hayMas);
+	}
+
+	/**
+	 * Construye una página en modo offset.
+	 */
+	public static <T> PaginaResponse<T> dePagina(List<T> contenido, int pagina, int limite,
+			long totalElementos, boolean hayMas) {
+		return new PaginaResponse<>(contenido, limite, null, pagina, totalElementos, hayMas);
+	}
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.commons.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// Línea de reserva/liberación de stock: cuántas unidades de un producto
+public record StockRequest(
+		@NotNull(message = "El id del producto es obligatorio")
+		Long idProducto,
+
+		@NotNull(message = "La cantidad es obligatoria")
+		@Min(value = 1, message = "La cantidad debe ser al menos 1")
+		Integer cantidad
+) {
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.commons.exceptions;
+
+/*
+ * Excepción que indica una combinación de parámetros de la petición que no se puede
+ * atender aunque cada parámetro por separado sea válido (p. ej. after y page a la vez).
+ *
+ * El GlobalExceptionHandler la transforma en un 400 BAD_REQUEST con el mensaje.
+ */
+public class ParametrosInvalidosException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ParametrosInvalidosException(String mensaje) {
+        super(mensaje);
+    }
+}
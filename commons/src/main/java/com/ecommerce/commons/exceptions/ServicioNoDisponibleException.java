@@ -0,0 +1,20 @@
+package com.ecommerce.commons.exceptions;
+
+/*
+ * Excepción que indica que un servicio remoto no está disponible (circuito abierto,
+ * bulkhead lleno, timeout o 5xx) y la operación no puede continuar con datos degradados.
+ *
+ * El GlobalExceptionHandler la transforma en un 503 SERVICE_UNAVAILABLE.
+ */
+public class ServicioNoDisponibleException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServicioNoDisponibleException(String mensaje) {
+        super(mensaje);
+    }
+
+    public ServicioNoDisponibleException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
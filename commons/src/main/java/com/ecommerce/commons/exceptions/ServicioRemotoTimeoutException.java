@@ -0,0 +1,20 @@
+package com.ecommerce.commons.exceptions;
+
+/*
+ * Excepción que indica que las llamadas remotas de una petición no terminaron
+ * dentro del plazo configurado (ver FanOutExecutor).
+ *
+ * El GlobalExceptionHandler la transforma en un 504 GATEWAY_TIMEOUT.
+ */
+public class ServicioRemotoTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServicioRemotoTimeoutException(String mensaje) {
+        super(mensaje);
+    }
+
+    public ServicioRemotoTimeoutException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -3,6 +3,8 @@ package com.ecommerce.commons.services;
 
 import java.util.List;
 
+import com.ecommerce.commons.dto.PaginaResponse;
+
 /**
  * Interfaz genérica de servicio con operaciones CRUD básicas.
  *
@@ -32,6 +34,36 @@ public interface CommonService<RQ, RS> {
      */
     List<RS> listar();
 
+    /**
+     * Lista los recursos por páginas usando un cursor (keyset pagination).
+     *
+     * Parámetros:
+     * - Long after: id del último registro de la página anterior (null para la primera página).
+     * - int limite: número máximo de registros a devolver.
+     * - boolean descendente: orden por id; en descendente "after" significa "ids menores que".
+     *
+     * Implementación esperada:
+     * - Consulta indexada "WHERE id > :after ORDER BY id FETCH FIRST :limite + 1 ROWS ONLY"
+     *   (en lugar de OFFSET), de modo que el costo no crece con el número de página.
+     *
+     * ¿Qué devuelve?
+     * - PaginaResponse<RS> con el contenido y el siguienteCursor (null si no hay más datos).
+     */
+    PaginaResponse<RS> listarPorCursor(Long after, int limite, boolean descendente);
+
+    /**
+     * Lista los recursos por número de página (offset), ordenados por id.
+     *
+     * Parámetros:
+     * - int pagina: número de página, empezando en 0.
+     * - int limite: tamaño de la página.
+     * - boolean descendente: orden por id.
+     *
+     * Nota: útil para saltar a una página concreta; para recorrer tablas grandes
+     * es preferible listarPorCursor, ya que OFFSET obliga a la BD a leer y descartar filas.
+     */
+    PaginaResponse<RS> listarPorPagina(int pagina, int limite, boolean descendente);
+
     /**
      * Inserta un nuevo recurso a partir del DTO de entrada.
      *
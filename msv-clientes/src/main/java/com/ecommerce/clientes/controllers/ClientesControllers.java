@@ -1,5 +1,10 @@
 package com.ecommerce.clientes.controllers;
 
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ecommerce.clientes.services.ClienteService;
@@ -13,4 +18,13 @@ public class ClientesControllers extends CommonController<ClientesRequest, Clien
 		// TODO Auto-generated constructor stub
 		super(service);
 	}
+
+	/**
+	 * Consulta masiva de clientes por id.
+	 * Recibe en el cuerpo la lista de ids y devuelve los clientes encontrados.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity<List<ClientesResponse>> obtenerPorIds(@RequestBody List<Long> ids) {
+		return ResponseEntity.ok(service.obtenerPorIds(ids));
+	}
 }
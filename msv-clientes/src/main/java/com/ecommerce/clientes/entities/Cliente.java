@@ -19,14 +19,13 @@ public class Cliente {
      *   - Marca el campo como PK de la entidad.
      *
      * @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CLIENTES_SEQ")
-     * @SequenceGenerator(name = "CLIENTES_SEQ", sequenceName = "CLIENTES_SEQ", allocationSize = 1)
+     * @SequenceGenerator(name = "CLIENTES_SEQ", sequenceName = "CLIENTES_SEQ", allocationSize = 50)
      *   - Indica que JPA debe obtener valores del lado de la BD usando una SEQUENCE.
      *   - name: nombre interno que relaciona GeneratedValue con este SequenceGenerator.
      *   - sequenceName: nombre real de la secuencia en la BD (debe existir: CLIENTES_SEQ).
-     *   - allocationSize = 1: hace que JPA pida la secuencia 1 por 1 (coincide con NEXTVAL).
-     *     Ejemplo: si la secuencia en BD incrementa de 1 en 1 y allocationSize fuera 50,
-     *     Hibernate reservaría bloques de 50 ids y los valores no coincidirían exactamente
-     *     con NEXTVAL en cada inserción (importante en Oracle).
+     *   - allocationSize = 50: Hibernate reserva bloques de 50 ids con un solo NEXTVAL
+     *     (optimizador pooled). La secuencia en BD debe tener INCREMENT BY 50
+     *     (migración V2__secuencia_pooled); si no coinciden, Hibernate no arranca.
      *
      * ¿Qué devuelve getId() antes y después de persistir?
      * - Antes de repo.save(entity): id == null (Long permite null).
@@ -34,7 +33,7 @@ public class Cliente {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CLIENTES_SEQ")
-    @SequenceGenerator(name = "CLIENTES_SEQ", sequenceName = "CLIENTES_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "CLIENTES_SEQ", sequenceName = "CLIENTES_SEQ", allocationSize = 50)
     @Column(name = "ID_CLIENTES")
     private Long id;
 
@@ -1,8 +1,11 @@
 package com.ecommerce.clientes.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.clientes.entities.Cliente;
@@ -67,4 +70,15 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     // - Igual que existsByEmail, pero para el campo 'telefono'.
     // - Útil para validaciones de unicidad en la capa de servicio antes de insertar/actualizar.
     boolean existsByTelefono(String telefono);
+
+    // findSiguientes / findAnteriores:
+    // - Paginación por cursor (keyset): en lugar de OFFSET, filtra por la PK y corta con FETCH FIRST.
+    // - Oracle recorre el índice de ID_CLIENTES desde el cursor, por lo que el costo es el mismo
+    //   para la primera página que para la página 10.000.
+    // - limite debe ser el tamaño de página + 1 para saber si hay una página siguiente.
+    @Query(nativeQuery = true, value = "SELECT * FROM CLIENTES WHERE ID_CLIENTES > :after ORDER BY ID_CLIENTES FETCH FIRST :limite ROWS ONLY")
+    List<Cliente> findSiguientes(@Param("after") Long after, @Param("limite") int limite);
+
+    @Query(nativeQuery = true, value = "SELECT * FROM CLIENTES WHERE ID_CLIENTES < :before ORDER BY ID_CLIENTES DESC FETCH FIRST :limite ROWS ONLY")
+    List<Cliente> findAnteriores(@Param("before") Long before, @Param("limite") int limite);
 }
@@ -1,5 +1,7 @@
 package com.ecommerce.clientes.services;
 
+import java.util.List;
+
 import com.ecommerce.commons.dto.ClientesRequest;
 import com.ecommerce.commons.dto.ClientesResponse;
 import com.ecommerce.commons.services.CommonService;
@@ -23,4 +25,12 @@ import com.ecommerce.commons.services.CommonService;
 
 public interface ClienteService extends CommonService<ClientesRequest, ClientesResponse> {
 
+    /**
+     * Obtiene varios clientes en una sola consulta.
+     *
+     * - Entrada: lista de ids (puede traer repetidos).
+     * - Salida: los clientes encontrados; los ids inexistentes no aparecen en la lista.
+     * - Uso típico: msv-pedidos resuelve de una vez los clientes de todo un listado.
+     */
+    List<ClientesResponse> obtenerPorIds(List<Long> ids);
 }
@@ -4,11 +4,15 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.ecommerce.commons.dto.ClientesRequest;
 import com.ecommerce.commons.dto.ClientesResponse;
+import com.ecommerce.commons.dto.PaginaResponse;
 import com.ecommerce.commons.exceptions.EntidadRelacionadaException;
 import com.ecommerce.clientes.clients.PedidosClients;
 import com.ecommerce.clientes.entities.Cliente;
@@ -52,6 +56,37 @@ public class ClienteServiceImpl implements ClienteService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<ClientesResponse> listarPorCursor(Long after, int limite, boolean descendente) {
+        // Se pide una fila extra (limite + 1) para saber si existe una página siguiente
+        List<Cliente> filas = descendente
+                ? clienteRepository.findAnteriores(after != null ? after : Long.MAX_VALUE, limite + 1)
+                : clienteRepository.findSiguientes(after != null ? after : 0L, limite + 1);
+        return PaginaResponse.deCursor(filas, limite, Cliente::getId,
+                pagina -> pagina.stream().map(clienteMapper::entityToResponse).collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<ClientesResponse> listarPorPagina(int pagina, int limite, boolean descendente) {
+        // PageRequest genera OFFSET/FETCH en Oracle y un COUNT(*) para el total
+        Page<Cliente> page = clienteRepository.findAll(PageRequest.of(pagina, limite,
+                Sort.by(descendente ? Sort.Direction.DESC : Sort.Direction.ASC, "id")));
+        return PaginaResponse.dePagina(
+                page.getContent().stream().map(clienteMapper::entityToResponse).collect(Collectors.toList()),
+                pagina, limite, page.getTotalElements(), page.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClientesResponse> obtenerPorIds(List<Long> ids) {
+        // findAllById genera un único SELECT ... WHERE ID_CLIENTES IN (...)
+        return clienteRepository.findAllById(ids).stream()
+                .map(clienteMapper::entityToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public ClientesResponse insertar(ClientesRequest request) {
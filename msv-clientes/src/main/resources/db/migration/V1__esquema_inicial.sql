@@ -0,0 +1,16 @@
+-- Esquema de msv-clientes anterior a las migraciones (las bases existentes se marcan como V1).
+-- Las restricciones UNIQUE de EMAIL y TELEFONO crean sus índices, que usan
+-- findByEmail/existsByEmail y findByTelefono/existsByTelefono.
+CREATE SEQUENCE CLIENTES_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE TABLE CLIENTES (
+    ID_CLIENTES  NUMBER(19)      NOT NULL,
+    NOMBRE       VARCHAR2(50)    NOT NULL,
+    APELLIDO     VARCHAR2(50)    NOT NULL,
+    EMAIL        VARCHAR2(50)    NOT NULL,
+    TELEFONO     VARCHAR2(10)    NOT NULL,
+    DIRECCION    VARCHAR2(100),
+    CONSTRAINT PK_CLIENTES PRIMARY KEY (ID_CLIENTES),
+    CONSTRAINT UN_EMAIL UNIQUE (EMAIL),
+    CONSTRAINT UN_TELEFONO UNIQUE (TELEFONO)
+);
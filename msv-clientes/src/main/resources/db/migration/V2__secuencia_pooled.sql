@@ -0,0 +1,2 @@
+-- Cliente reserva 50 ids por llamada a la secuencia (allocationSize = 50, optimizador pooled).
+ALTER SEQUENCE CLIENTES_SEQ INCREMENT BY 50 CACHE 20;
@@ -0,0 +1,94 @@
+package com.ecommerce.clientes.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.oracle.OracleContainer;
+
+import com.ecommerce.clientes.entities.Cliente;
+
+/**
+ * Aplica las migraciones de Flyway sobre un Oracle Free en contenedor y comprueba que las
+ * entidades validan contra el esquema resultante (ddl-auto=validate), que las secuencias
+ * avanzan lo mismo que allocationSize y que existen los índices. Se omite si no hay Docker.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MigracionesOracleTest {
+
+	@Container
+	@ServiceConnection
+	static OracleContainer oracle = new OracleContainer("gvenzl/oracle-free:23-slim-faststart");
+
+	// Configuración mínima: evita arrancar MsvClientesApplication (Feign, Eureka)
+	@Configuration
+	@EntityScan(basePackageClasses = Cliente.class)
+	@EnableJpaRepositories(basePackageClasses = ClienteRepository.class)
+	static class Config {
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ClienteRepository repository;
+
+	@Test
+	void aplicaTodasLasMigraciones() {
+		assertEquals("2", flyway.info().current().getVersion().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+	}
+
+	@Test
+	void secuenciaCoincideConAllocationSize() {
+		assertEquals(50, incremento("CLIENTES_SEQ"));
+	}
+
+	@Test
+	void emailYTelefonoIndexados() {
+		assertTrue(indexada("CLIENTES", "EMAIL"));
+		assertTrue(indexada("CLIENTES", "TELEFONO"));
+	}
+
+	@Test
+	void guardaYBuscaPorEmailYTelefono() {
+		Cliente cliente = new Cliente();
+		cliente.setNombre("Ana");
+		cliente.setApellido("López");
+		cliente.setEmail("ana@correo.com");
+		cliente.setTelefono("5512345678");
+		cliente.setDireccion("Calle Falsa 123, CDMX");
+		repository.saveAndFlush(cliente);
+
+		assertTrue(repository.existsByEmail("ana@correo.com"));
+		assertTrue(repository.existsByTelefono("5512345678"));
+		assertEquals("Ana", repository.findByEmail("ana@correo.com").orElseThrow().getNombre());
+	}
+
+	private int incremento(String secuencia) {
+		return jdbcTemplate.queryForObject(
+				"SELECT INCREMENT_BY FROM USER_SEQUENCES WHERE SEQUENCE_NAME = ?", Integer.class, secuencia);
+	}
+
+	private boolean indexada(String tabla, String columna) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM USER_IND_COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = ? AND COLUMN_POSITION = 1",
+				Integer.class, tabla, columna) > 0;
+	}
+}
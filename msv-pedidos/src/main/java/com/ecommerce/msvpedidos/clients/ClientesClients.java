@@ -1,14 +1,23 @@
 package com.ecommerce.msvpedidos.clients;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import com.ecommerce.commons.configuration.FeignClientConfig;
 import com.ecommerce.commons.dto.ClientesResponse;
 
-@FeignClient(name = "msv-clientes", configuration = FeignClientConfig.class)
+@FeignClient(name = "msv-clientes", configuration = FeignClientConfig.class, fallbackFactory = ClientesClientsFallback.class)
 public interface ClientesClients {
 	@GetMapping("/{id}")
 	ClientesResponse getClienteById(@PathVariable Long id);
+
+	// Resuelve varios clientes en una sola llamada; los ids inexistentes no se devuelven
+	@PostMapping("/batch")
+	List<ClientesResponse> getClientesByIds(@RequestBody Collection<Long> ids);
 }
@@ -0,0 +1,51 @@
+package com.ecommerce.msvpedidos.clients;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.commons.configuration.FallbackFeign;
+import com.ecommerce.commons.dto.ClientesResponse;
+
+/**
+ * Fallback de {@link ClientesClients} cuando msv-clientes no está disponible.
+ *
+ * Las consultas devuelven clientes "sin datos" (solo el id): las lecturas de pedidos
+ * responden sin el nombre del cliente en lugar de fallar toda la página, y las
+ * escrituras los rechazan con 503 (ver ClientesResolver). Los 4xx se propagan.
+ */
+@Component
+public class ClientesClientsFallback implements FallbackFactory<ClientesClients> {
+
+	private static final Logger LOGGER = Logger.getLogger(ClientesClientsFallback.class.getName());
+
+	@Override
+	public ClientesClients create(Throwable cause) {
+		if (!FallbackFeign.indisponible(cause)) {
+			throw FallbackFeign.propagar(cause);
+		}
+		LOGGER.warning("msv-clientes no disponible, se responde sin datos de clientes: " + cause);
+		return new ClientesClients() {
+			@Override
+			public ClientesResponse getClienteById(Long id) {
+				return sinDatos(id);
+			}
+
+			@Override
+			public List<ClientesResponse> getClientesByIds(Collection<Long> ids) {
+				return ids.stream().map(ClientesClientsFallback::sinDatos).toList();
+			}
+		};
+	}
+
+	public static ClientesResponse sinDatos(Long id) {
+		return new ClientesResponse(id, null, null, null, null, null);
+	}
+
+	public static boolean esSinDatos(ClientesResponse cliente) {
+		return cliente.nombre() == null && cliente.apellido() == null;
+	}
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.msvpedidos.clients;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.ecommerce.commons.dto.ClientesResponse;
+import com.ecommerce.commons.exceptions.ServicioNoDisponibleException;
+
+/**
+ * Resolver de clientes con alcance de petición HTTP.
+ *
+ * Cada petición obtiene su propia instancia: los clientes se cargan una sola vez
+ * (en bloque mediante {@link ClientesClients#getClientesByIds}) y se reutilizan
+ * mientras se mapean todos los pedidos de la respuesta. Al terminar la petición
+ * la instancia se descarta, por lo que no hay datos obsoletos entre peticiones.
+ *
+ * Si msv-clientes no está disponible se resuelven clientes "sin datos"
+ * (ver {@link ClientesClientsFallback}): las lecturas los aceptan y las escrituras
+ * usan {@link #obtenerDisponible(Long)}.
+ */
+@Component
+@RequestScope
+public class ClientesResolver {
+
+	private final ClientesClients clientesClients;
+
+	private final Map<Long, ClientesResponse> clientes = new ConcurrentHashMap<>();
+
+	public ClientesResolver(ClientesClients clientesClients) {
+		this.clientesClients = clientesClients;
+	}
+
+	/**
+	 * Carga en una sola llamada los clientes que todavía no estén resueltos.
+	 */
+	public void precargar(Collection<Long> ids) {
+		List<Long> faltantes = ids.stream()
+				.filter(id -> id != null && !clientes.containsKey(id))
+				.distinct()
+				.toList();
+		if (faltantes.isEmpty()) {
+			return;
+		}
+		clientesClients.getClientesByIds(faltantes)
+				.forEach(cliente -> clientes.put(cliente.id(), cliente));
+	}
+
+	/**
+	 * Devuelve el cliente ya resuelto o lo carga si aún no se había pedido.
+	 *
+	 * @throws NoSuchElementException si msv-clientes no conoce el id
+	 */
+	public ClientesResponse obtener(Long id) {
+		ClientesResponse cliente = clientes.get(id);
+		if (cliente == null) {
+			precargar(List.of(id));
+			cliente = clientes.get(id);
+		}
+		if (cliente == null) {
+			throw new NoSuchElementException("No se encontró el cliente " + id);
+		}
+		return cliente;
+	}
+
+	/**
+	 * Igual que {@link #obtener(Long)} pero exige los datos reales del cliente
+	 * (p. ej. para guardar la foto en un pedido).
+	 *
+	 * @throws ServicioNoDisponibleException si msv-clientes no está disponible
+	 */
+	public ClientesResponse obtenerDisponible(Long id) {
+		ClientesResponse cliente = obtener(id);
+		if (ClientesClientsFallback.esSinDatos(cliente)) {
+			throw new ServicioNoDisponibleException("msv-clientes no disponible para resolver el cliente " + id);
+		}
+		return cliente;
+	}
+
+	/**
+	 * Descarta los clientes resueltos; útil en procesos largos (p. ej. exportaciones)
+	 * que trabajan por bloques y no deben acumular clientes en memoria.
+	 */
+	public void limpiar() {
+		clientes.clear();
+	}
+}
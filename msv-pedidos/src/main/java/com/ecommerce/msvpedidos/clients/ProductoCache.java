@@ -0,0 +1,91 @@
+package com.ecommerce.msvpedidos.clients;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.commons.dto.ProductoResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché local del catálogo de productos delante de {@link ProductoClient}.
+ *
+ * - Acotada por número de entradas y con expiración por TTL desde la escritura.
+ * - msv-productos notifica las modificaciones/eliminaciones para descartar
+ *   las entradas afectadas sin esperar al TTL (ver ProductoCacheController).
+ * - Publica métricas cache.gets (hit/miss), cache.evictions y cache.size con cache=productos.
+ * - Los productos "sin datos" del fallback (msv-productos no disponible) se devuelven
+ *   pero se descartan de la caché para volver a consultarlos en la siguiente petición.
+ * - Cada id lleva una generación que sube con cada invalidación. Una carga solo guarda los
+ *   productos cuya generación no cambió mientras esperaba a msv-productos; si llegó una
+ *   invalidación entre medias, el valor se devuelve pero no se cachea.
+ */
+@Component
+public class ProductoCache {
+
+	private final ProductoClient productoClient;
+
+	private final Cache<Long, ProductoResponse> cache;
+
+	// Solo contiene ids invalidados alguna vez; acotado por el tamaño del catálogo
+	private final Map<Long, Long> generaciones = new ConcurrentHashMap<>();
+
+	public ProductoCache(ProductoClient productoClient, MeterRegistry meterRegistry,
+			@Value("${pedidos.cache.productos.ttl:10m}") Duration ttl,
+			@Value("${pedidos.cache.productos.tamano-maximo:10000}") long tamanoMaximo) {
+		this.productoClient = productoClient;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(tamanoMaximo)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "productos");
+	}
+
+	/**
+	 * Devuelve los productos solicitados; los que no estén en caché se piden
+	 * a msv-productos en una sola llamada. Los ids inexistentes no aparecen en el mapa.
+	 */
+	public Map<Long, ProductoResponse> obtenerTodos(Collection<Long> ids) {
+		Map<Long, ProductoResponse> productos = new HashMap<>(cache.getAllPresent(ids));
+		List<Long> faltantes = ids.stream().filter(id -> !productos.containsKey(id)).distinct().toList();
+		if (!faltantes.isEmpty()) {
+			productos.putAll(cargar(faltantes));
+		}
+		return productos;
+	}
+
+	public void invalidar(Long id) {
+		generaciones.merge(id, 1L, Long::sum);
+		cache.invalidate(id);
+	}
+
+	private Map<Long, ProductoResponse> cargar(List<Long> faltantes) {
+		Map<Long, Long> previas = new HashMap<>();
+		faltantes.forEach(id -> previas.put(id, generacion(id)));
+		Map<Long, ProductoResponse> cargados = new HashMap<>();
+		for (ProductoResponse producto : productoClient.getProductosByIds(faltantes)) {
+			if (cargados.putIfAbsent(producto.id(), producto) != null || ProductoClientFallback.esSinDatos(producto)) {
+				continue;
+			}
+			// compute bloquea la clave: una invalidación posterior a la comprobación espera y la descarta
+			cache.asMap().compute(producto.id(), (id, actual) ->
+					previas.containsKey(id) && previas.get(id) == generacion(id) ? producto : actual);
+		}
+		return cargados;
+	}
+
+	private long generacion(Long id) {
+		return generaciones.getOrDefault(id, 0L);
+	}
+}
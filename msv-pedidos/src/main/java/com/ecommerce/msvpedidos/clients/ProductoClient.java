@@ -1,14 +1,37 @@
 package com.ecommerce.msvpedidos.clients;
 import com.ecommerce.commons.configuration.FeignClientConfig;
+import com.ecommerce.commons.dto.MovimientoStockRequest;
 import com.ecommerce.commons.dto.ProductoResponse;
+
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "msv-productos", configuration = FeignClientConfig.class)
+@FeignClient(name = "msv-productos", configuration = FeignClientConfig.class, fallbackFactory = ProductoClientFallback.class)
     public interface ProductoClient {
         @GetMapping("/{id}")
         ProductoResponse getProductoById(@PathVariable Long id);
+
+        // Resuelve varios productos en una sola llamada; los ids inexistentes no se devuelven
+        @PostMapping("/batch")
+        List<ProductoResponse> getProductosByIds(@RequestBody Collection<Long> ids);
+
+        // Descuenta el stock de todas las líneas o de ninguna; 409 si alguna no alcanza.
+        // Idempotente por idOperacion: se puede reintentar o anular con el mismo id
+        @PostMapping("/stock/reserve")
+        void reservarStock(@RequestBody MovimientoStockRequest reserva);
+
+        // Compensación: deshace la reserva, o la anula de antemano si todavía no llegó
+        @PostMapping("/stock/reserve/{idOperacion}/cancel")
+        void anularReserva(@PathVariable String idOperacion);
+
+        // Devuelve unidades de un pedido modificado o eliminado; idempotente por idOperacion
+        @PostMapping("/stock/release")
+        void liberarStock(@RequestBody MovimientoStockRequest devolucion);
         //CategoriaResponse getCategoriaById(@PathVariable Long id);
     }
-
@@ -0,0 +1,67 @@
+package com.ecommerce.msvpedidos.clients;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.commons.configuration.FallbackFeign;
+import com.ecommerce.commons.dto.MovimientoStockRequest;
+import com.ecommerce.commons.dto.ProductoResponse;
+
+/**
+ * Fallback de {@link ProductoClient} cuando msv-productos no está disponible.
+ *
+ * Las consultas devuelven productos "sin datos" (solo el id), que ProductoCache no
+ * guarda. Las operaciones de stock no tienen respuesta degradada posible y siempre
+ * propagan el error.
+ */
+@Component
+public class ProductoClientFallback implements FallbackFactory<ProductoClient> {
+
+	private static final Logger LOGGER = Logger.getLogger(ProductoClientFallback.class.getName());
+
+	@Override
+	public ProductoClient create(Throwable cause) {
+		if (!FallbackFeign.indisponible(cause)) {
+			throw FallbackFeign.propagar(cause);
+		}
+		LOGGER.warning("msv-productos no disponible, se responde sin datos de productos: " + cause);
+		return new ProductoClient() {
+			@Override
+			public ProductoResponse getProductoById(Long id) {
+				return sinDatos(id);
+			}
+
+			@Override
+			public List<ProductoResponse> getProductosByIds(Collection<Long> ids) {
+				return ids.stream().map(ProductoClientFallback::sinDatos).toList();
+			}
+
+			@Override
+			public void reservarStock(MovimientoStockRequest reserva) {
+				throw FallbackFeign.propagar(cause);
+			}
+
+			@Override
+			public void anularReserva(String idOperacion) {
+				throw FallbackFeign.propagar(cause);
+			}
+
+			@Override
+			public void liberarStock(MovimientoStockRequest devolucion) {
+				throw FallbackFeign.propagar(cause);
+			}
+		};
+	}
+
+	public static ProductoResponse sinDatos(Long id) {
+		return new ProductoResponse(id, null, null, null, null);
+	}
+
+	public static boolean esSinDatos(ProductoResponse producto) {
+		return producto.nombre() == null && producto.precio() == null;
+	}
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.msvpedidos.configuration;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.ecommerce.commons.configuration.LlamadasRemotas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Registra cuántas llamadas Feign (a msv-productos y msv-clientes) hace cada consulta de pedidos.
+ *
+ * pedidos.llamadas.remotas (distribution summary) con tag ruta = listado | paginado | detalle.
+ * Sirve para vigilar que el listado siga haciendo un número constante de llamadas por página
+ * (fotos guardadas + consultas por lote) y no una por pedido.
+ */
+@Component
+public class LlamadasRemotasFilter extends OncePerRequestFilter {
+
+	private final MeterRegistry registry;
+
+	public LlamadasRemotasFilter(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return ruta(request) == null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		LlamadasRemotas.iniciar();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			int total = LlamadasRemotas.total();
+			if (total >= 0) {
+				DistributionSummary.builder("pedidos.llamadas.remotas")
+						.description("Llamadas Feign por consulta de pedidos")
+						.tag("ruta", ruta(request))
+						.publishPercentileHistogram()
+						.register(registry)
+						.record(total);
+			}
+		}
+	}
+
+	private static String ruta(HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod())) {
+			return null;
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (path.isEmpty() || "/".equals(path)) {
+			return "listado";
+		}
+		if ("/paginado".equals(path)) {
+			return "paginado";
+		}
+		if (path.length() > 1 && path.substring(1).chars().allMatch(Character::isDigit)) {
+			return "detalle";
+		}
+		return null;
+	}
+}
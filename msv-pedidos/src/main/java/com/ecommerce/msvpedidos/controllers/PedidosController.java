@@ -1,22 +1,42 @@
 package com.ecommerce.msvpedidos.controllers;
 
 import com.ecommerce.commons.controllers.CommonController;
+import com.ecommerce.commons.dto.CargaMasivaResponse;
 import com.ecommerce.commons.dto.PedidosRequest;
 import com.ecommerce.commons.dto.PedidosResponse;
 import com.ecommerce.msvpedidos.services.PedidosService;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 @RestController
 public class PedidosController extends CommonController<PedidosRequest, PedidosResponse, PedidosService>{
 
-	public PedidosController(PedidosService service) {
+	private final ObjectMapper objectMapper;
+
+	public PedidosController(PedidosService service, ObjectMapper objectMapper) {
 		super(service);
+		this.objectMapper = objectMapper;
 	}
 
 	@GetMapping("/id-cliente/{id}")
@@ -30,6 +50,53 @@ public class PedidosController extends CommonController<PedidosRequest, PedidosR
 		return service.productoIsPresent(id);
 	}
 
+	/**
+	 * Exporta todos los pedidos como NDJSON sin construir la lista completa en memoria.
+	 * El cuerpo se escribe en un hilo asíncrono; ahí se vuelve a registrar la petición
+	 * para que el Authorization se siga propagando a los clientes Feign.
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportar(HttpServletRequest request) {
+		StreamingResponseBody cuerpo = salida -> {
+			ServletRequestAttributes atributos = new ServletRequestAttributes(request);
+			RequestContextHolder.setRequestAttributes(atributos);
+			try {
+				service.exportar(salida);
+			} finally {
+				atributos.requestCompleted();
+				RequestContextHolder.resetRequestAttributes();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
+	}
+
+	/**
+	 * Carga masiva de pedidos a partir de un arreglo JSON.
+	 * Cada pedido se valida y guarda por separado: la respuesta indica el id
+	 * asignado o el motivo del fallo de cada uno, en el mismo orden.
+	 */
+	@PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<CargaMasivaResponse> insertarMasivo(@RequestBody List<PedidosRequest> pedidos) {
+		return ResponseEntity.ok(service.insertarMasivo(pedidos));
+	}
+
+	/**
+	 * Carga masiva de pedidos en formato NDJSON (un pedido por línea).
+	 */
+	@PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<CargaMasivaResponse> insertarMasivoNdjson(HttpServletRequest request) throws IOException {
+		List<PedidosRequest> pedidos;
+		try {
+			pedidos = objectMapper.readerFor(PedidosRequest.class)
+					.<PedidosRequest>readValues(request.getInputStream())
+					.readAll();
+		} catch (JsonProcessingException e) {
+			throw new HttpMessageNotReadableException("NDJSON inválido: " + e.getOriginalMessage(), e,
+					new ServletServerHttpRequest(request));
+		}
+		return ResponseEntity.ok(service.insertarMasivo(pedidos));
+	}
+
 	@PatchMapping("/estado/{estado}/{id}")
 	public PedidosResponse estado(@PathVariable String estado, @PathVariable Long id) {
 		return service.cambiarEstado(estado, id);
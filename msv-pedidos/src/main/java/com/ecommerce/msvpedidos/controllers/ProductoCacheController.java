@@ -0,0 +1,28 @@
+package com.ecommerce.msvpedidos.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecommerce.msvpedidos.clients.ProductoCache;
+
+/**
+ * Recibe las notificaciones de invalidación que publica msv-productos
+ * cuando un producto se actualiza o se elimina.
+ */
+@RestController
+public class ProductoCacheController {
+
+	private final ProductoCache productoCache;
+
+	public ProductoCacheController(ProductoCache productoCache) {
+		this.productoCache = productoCache;
+	}
+
+	@DeleteMapping("/cache/productos/{id}")
+	public ResponseEntity<Void> invalidar(@PathVariable Long id) {
+		productoCache.invalidar(id);
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -11,16 +11,21 @@ import java.util.Set;
 public class Pedido {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PEDIDOS_SEQ")
-    @SequenceGenerator(name = "PEDIDOS_SEQ", sequenceName = "PEDIDOS_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "PEDIDOS_SEQ", sequenceName = "PEDIDOS_SEQ", allocationSize = 50)
     @Column(name = "ID_PEDIDOS")
     private Long id;
 
     @Column(name = "ID_CLIENTE", nullable = false)
     private Long idCliente;
 
-    @Column(name = "TOTAL", insertable = false, updatable = false)
+    // Total mantenido al escribir el pedido (suma de precio * cantidad de sus líneas)
+    @Column(name = "TOTAL")
     private Double total;
 
+    // Foto del nombre del cliente al momento de escribir el pedido; evita consultar msv-clientes al leer
+    @Column(name = "NOMBRE_CLIENTE", length = 101)
+    private String nombreCliente;
+
     @Column(name = "FECHA_CREACION", nullable = false)
     @Temporal(TemporalType.TIMESTAMP)
     private Date fechaCreacion;
@@ -36,6 +41,29 @@ public class Pedido {
         if (this.fechaCreacion == null) {
             this.fechaCreacion = new Date();
         }
+        if (this.total == null) {
+            recalcularTotal();
+        }
+    }
+
+    /**
+     * Recalcula el total a partir de las líneas actuales.
+     * Se debe llamar cada vez que cambian las líneas: modificar solo la colección
+     * no marca al pedido como modificado, por lo que @PreUpdate no bastaría.
+     */
+    public void recalcularTotal() {
+        this.total = productos.stream()
+                .mapToDouble(p -> p.getPrecio() * p.getCantidad())
+                .sum();
+    }
+
+    /**
+     * Indica si el pedido ya tiene guardada la foto completa (cliente, total y líneas)
+     * y por tanto puede responderse sin llamar a otros servicios.
+     */
+    public boolean tieneSnapshot() {
+        return nombreCliente != null && total != null
+                && productos.stream().allMatch(ProductoPedido::tieneSnapshot);
     }
     public Pedido() {
     }
@@ -64,6 +92,14 @@ public class Pedido {
         this.total = total;
     }
 
+    public String getNombreCliente() {
+        return nombreCliente;
+    }
+
+    public void setNombreCliente(String nombreCliente) {
+        this.nombreCliente = nombreCliente;
+    }
+
     public Date getFechaCreacion() {
         return fechaCreacion;
     }
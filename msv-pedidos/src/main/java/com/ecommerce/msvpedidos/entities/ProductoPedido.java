@@ -8,7 +8,7 @@ public class ProductoPedido {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PRODUCTOS_PEDIDOS_SEQ")
-    @SequenceGenerator(name = "PRODUCTOS_PEDIDOS_SEQ", sequenceName = "PRODUCTOS_PEDIDOS_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "PRODUCTOS_PEDIDOS_SEQ", sequenceName = "PRODUCTOS_PEDIDOS_SEQ", allocationSize = 50)
     @Column(name = "ID_PRODUCTOS_PEDIDOS")
     private Long id;
 
@@ -23,7 +23,14 @@ public class ProductoPedido {
     private Integer cantidad;
 
     @Column(name = "PRECIO", nullable = false)
-    private Double precio;
+    private Double precio; // precio unitario acordado en el pedido
+
+    // Foto del producto al momento de escribir el pedido; evita consultar msv-productos al leer
+    @Column(name = "NOMBRE", length = 30)
+    private String nombre;
+
+    @Column(name = "DESCRIPCION", length = 150)
+    private String descripcion;
 
     public ProductoPedido() {}
 
@@ -42,4 +49,12 @@ public class ProductoPedido {
 
     public Double getPrecio() { return precio; }
     public void setPrecio(Double precio) { this.precio = precio; }
+
+    public String getNombre() { return nombre; }
+    public void setNombre(String nombre) { this.nombre = nombre; }
+
+    public String getDescripcion() { return descripcion; }
+    public void setDescripcion(String descripcion) { this.descripcion = descripcion; }
+
+    public boolean tieneSnapshot() { return nombre != null && descripcion != null; }
 }
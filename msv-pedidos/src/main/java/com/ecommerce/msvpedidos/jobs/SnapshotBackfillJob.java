@@ -0,0 +1,127 @@
+package com.ecommerce.msvpedidos.jobs;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.commons.dto.ClientesResponse;
+import com.ecommerce.commons.dto.ProductoResponse;
+import com.ecommerce.commons.exceptions.ServicioNoDisponibleException;
+import com.ecommerce.msvpedidos.clients.ClientesClients;
+import com.ecommerce.msvpedidos.clients.ClientesClientsFallback;
+import com.ecommerce.msvpedidos.clients.ProductoCache;
+import com.ecommerce.msvpedidos.clients.ProductoClientFallback;
+import com.ecommerce.msvpedidos.entities.Pedido;
+import com.ecommerce.msvpedidos.entities.ProductoPedido;
+import com.ecommerce.msvpedidos.mappers.PedidoMapper;
+import com.ecommerce.msvpedidos.repositories.PedidosRepository;
+
+/**
+ * Completa la foto (nombre del cliente, nombre/descripción de productos y total)
+ * de los pedidos escritos antes de que existieran esas columnas.
+ *
+ * - Se activa con pedidos.backfill.habilitado=true y corre en segundo plano al arrancar.
+ * - Avanza por cursor sobre la PK en bloques, cada uno en su propia transacción,
+ *   con una llamada por servicio remoto por bloque.
+ * - Si un cliente/producto ya no existe, la fila queda sin foto y la lectura
+ *   sigue usando el enriquecimiento remoto para ella.
+ * - Si msv-clientes o msv-productos no están disponibles se interrumpe y lo
+ *   retoma el siguiente arranque.
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.backfill.habilitado", havingValue = "true")
+public class SnapshotBackfillJob {
+
+	private static final Logger LOG = Logger.getLogger(SnapshotBackfillJob.class.getName());
+
+	private final PedidosRepository repository;
+	private final ClientesClients clientesClients;
+	private final ProductoCache productoCache;
+	private final TransactionTemplate transactionTemplate;
+	private final int tamanoBloque;
+
+	public SnapshotBackfillJob(PedidosRepository repository, ClientesClients clientesClients,
+			ProductoCache productoCache, PlatformTransactionManager transactionManager,
+			@Value("${pedidos.backfill.tamano-bloque:500}") int tamanoBloque) {
+		this.repository = repository;
+		this.clientesClients = clientesClients;
+		this.productoCache = productoCache;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.tamanoBloque = tamanoBloque;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void iniciar() {
+		Thread hilo = new Thread(this::ejecutar, "pedidos-backfill");
+		hilo.setDaemon(true);
+		hilo.start();
+	}
+
+	public void ejecutar() {
+		long cursor = 0L;
+		int total = 0;
+		try {
+			while (true) {
+				List<Long> ids = repository.findIdsSinSnapshot(cursor, tamanoBloque).stream()
+						.map(Number::longValue)
+						.toList();
+				if (ids.isEmpty()) {
+					break;
+				}
+				transactionTemplate.executeWithoutResult(status -> completarBloque(ids));
+				cursor = ids.get(ids.size() - 1);
+				total += ids.size();
+			}
+			LOG.info("Backfill de pedidos terminado: " + total + " pedidos procesados");
+		} catch (RuntimeException e) {
+			LOG.log(Level.WARNING, "Backfill de pedidos interrumpido en el pedido " + cursor, e);
+		}
+	}
+
+	private void completarBloque(List<Long> ids) {
+		List<Pedido> pedidos = repository.findConProductosByIds(ids);
+
+		List<Long> idsClientes = pedidos.stream().map(Pedido::getIdCliente).distinct().toList();
+		List<Long> idsProductos = pedidos.stream()
+				.flatMap(p -> p.getProductos().stream())
+				.map(ProductoPedido::getIdProducto)
+				.distinct()
+				.toList();
+
+		Map<Long, ClientesResponse> clientes = clientesClients.getClientesByIds(idsClientes).stream()
+				.collect(Collectors.toMap(ClientesResponse::id, Function.identity(), (a, b) -> a));
+		Map<Long, ProductoResponse> productos = productoCache.obtenerTodos(idsProductos);
+		// Con datos degradados el bloque quedaría sin foto y el cursor lo saltaría: se interrumpe
+		if (clientes.values().stream().anyMatch(ClientesClientsFallback::esSinDatos)
+				|| productos.values().stream().anyMatch(ProductoClientFallback::esSinDatos)) {
+			throw new ServicioNoDisponibleException("msv-clientes o msv-productos no disponible");
+		}
+
+		// Las entidades están gestionadas: los cambios se escriben al confirmar la transacción
+		for (Pedido pedido : pedidos) {
+			ClientesResponse cliente = clientes.get(pedido.getIdCliente());
+			if (pedido.getNombreCliente() == null && cliente != null) {
+				pedido.setNombreCliente(PedidoMapper.nombreCompleto(cliente));
+			}
+			for (ProductoPedido linea : pedido.getProductos()) {
+				ProductoResponse producto = productos.get(linea.getIdProducto());
+				if (!linea.tieneSnapshot() && producto != null) {
+					linea.setNombre(producto.nombre());
+					linea.setDescripcion(producto.descripcion());
+				}
+			}
+			pedido.recalcularTotal();
+		}
+	}
+}
@@ -1,32 +1,42 @@
 package com.ecommerce.msvpedidos.mappers;
 
+import com.ecommerce.commons.configuration.FanOutExecutor;
 import com.ecommerce.commons.dto.ClientesResponse;
 import com.ecommerce.commons.dto.PedidosRequest;
 import com.ecommerce.commons.dto.PedidosResponse;
 import com.ecommerce.commons.dto.ProductoResponse;
+import com.ecommerce.commons.exceptions.ServicioNoDisponibleException;
 import com.ecommerce.commons.mappers.CommonMapper;
-import com.ecommerce.msvpedidos.clients.ClientesClients;
-import com.ecommerce.msvpedidos.clients.ProductoClient;
+import com.ecommerce.msvpedidos.clients.ClientesClientsFallback;
+import com.ecommerce.msvpedidos.clients.ClientesResolver;
+import com.ecommerce.msvpedidos.clients.ProductoCache;
+import com.ecommerce.msvpedidos.clients.ProductoClientFallback;
 import com.ecommerce.msvpedidos.entities.Pedido;
 import com.ecommerce.msvpedidos.entities.Producto;
 import com.ecommerce.msvpedidos.entities.ProductoPedido;
 import org.springframework.stereotype.Component;
 
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class PedidoMapper extends CommonMapper<PedidosRequest, PedidosResponse, Pedido> {
 
-    private ProductoClient productoClient;
-    private ClientesClients clientesClients;
+    private ProductoCache productoCache;
+    private ClientesResolver clientesResolver;
+    private FanOutExecutor fanOut;
 
-    public PedidoMapper(ProductoClient productoClient,  ClientesClients clientesClients) {
-        this.productoClient = productoClient;
-        this.clientesClients = clientesClients;
+    public PedidoMapper(ProductoCache productoCache,  ClientesResolver clientesResolver, FanOutExecutor fanOut) {
+        this.productoCache = productoCache;
+        this.clientesResolver = clientesResolver;
+        this.fanOut = fanOut;
     }
 
     @Override
@@ -34,24 +44,76 @@ public class PedidoMapper extends CommonMapper<PedidosRequest, PedidosResponse,
         if (request == null) {
             return null;
         }
+        return requestToEntity(request, precargar(List.of(request)));
+    }
 
+    /**
+     * Igual que {@link #requestToEntity(PedidosRequest)} pero con los productos ya
+     * resueltos por {@link #precargar}; no hace llamadas remotas.
+     */
+    public Pedido requestToEntity(PedidosRequest request, Map<Long, ProductoResponse> productosPorId) {
         Pedido pedido = new Pedido();
+        //pedido.setFechaCreacion(request.fechaCreacion());
+        copiar(pedido, request, productosPorId);
+        return pedido;
+    }
+
+    /**
+     * Copia el request sobre un pedido existente guardando la foto del cliente
+     * y de cada producto, y recalcula el total.
+     */
+    public void aplicarRequest(Pedido pedido, PedidosRequest request) {
+        copiar(pedido, request, precargar(List.of(request)));
+    }
+
+    /**
+     * Resuelve en paralelo los clientes (quedan en el ClientesResolver de la petición)
+     * y los productos de varios requests: una llamada por servicio para todo el grupo.
+     */
+    public Map<Long, ProductoResponse> precargar(Collection<PedidosRequest> requests) {
+        List<Long> idsClientes = requests.stream()
+                .map(PedidosRequest::idCliente)
+                .distinct()
+                .toList();
+        List<Long> idsProductos = requests.stream()
+                .flatMap(r -> r.productos().stream())
+                .map(PedidosRequest.ProductoData::idProducto)
+                .distinct()
+                .toList();
+
+        CompletableFuture<Void> clientes = fanOut.ejecutar(() -> clientesResolver.precargar(idsClientes));
+        CompletableFuture<Map<Long, ProductoResponse>> productos = fanOut.enviar(() -> productoCache.obtenerTodos(idsProductos));
+        fanOut.esperar(clientes, productos);
+        return productos.join();
+    }
+
+    // Los clientes y productos ya deben estar precargados; así las lecturas posteriores no llaman a otros servicios.
+    // La foto exige datos reales: con un servicio no disponible el pedido no se guarda (503)
+    private void copiar(Pedido pedido, PedidosRequest request, Map<Long, ProductoResponse> productosPorId) {
         pedido.setIdCliente(request.idCliente());
+        pedido.setNombreCliente(nombreCompleto(clientesResolver.obtenerDisponible(request.idCliente())));
         pedido.setEstado(request.estado());
-        //pedido.setFechaCreacion(request.fechaCreacion());
-        Set<ProductoPedido> productosPedido = new HashSet<>();
 
+        Set<ProductoPedido> productosPedido = new HashSet<>();
         request.productos().forEach(item -> {
-            ProductoResponse productoResponse = productoClient.getProductoById(item.idProducto());
+            ProductoResponse productoResponse = buscarProducto(productosPorId, item.idProducto());
+            if (ProductoClientFallback.esSinDatos(productoResponse)) {
+                throw new ServicioNoDisponibleException(
+                        "msv-productos no disponible para resolver el producto " + item.idProducto());
+            }
             ProductoPedido pp = new ProductoPedido();
             pp.setPedido(pedido);
             pp.setIdProducto(productoResponse.id());
             pp.setCantidad(item.cantidad());
             pp.setPrecio(item.precio());
+            pp.setNombre(productoResponse.nombre());
+            pp.setDescripcion(productoResponse.descripcion());
             productosPedido.add(pp);
         });
-        pedido.setProductos(productosPedido);
-        return pedido;
+
+        pedido.getProductos().clear();
+        pedido.getProductos().addAll(productosPedido);
+        pedido.recalcularTotal();
     }
 
 
@@ -60,25 +122,57 @@ public class PedidoMapper extends CommonMapper<PedidosRequest, PedidosResponse,
         if (entity == null) {
             return null;
         }
+        return toResponse(entity, enriquecer(List.of(entity)));
+    }
+
+    /**
+     * Convierte una lista completa de pedidos. Los pedidos con foto guardada se
+     * responden sin llamadas remotas; solo para los antiguos (sin foto) se resuelven
+     * los productos y clientes distintos, en una sola llamada por servicio.
+     */
+    public List<PedidosResponse> entitiesToResponse(List<Pedido> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductoResponse> productos = enriquecer(entities);
+        return entities.stream()
+                .map(entity -> toResponse(entity, productos))
+                .toList();
+    }
+
+    // Con msv-clientes/msv-productos no disponibles, los datos sin foto salen en null (respuesta degradada)
+    private PedidosResponse toResponse(Pedido entity, Map<Long, ProductoResponse> productosPorId) {
         SimpleDateFormat formatter = new SimpleDateFormat("dd/MM/yyyy");
         String fechaFormateada = formatter.format(entity.getFechaCreacion());
-        ClientesResponse clientesResponse = clientesClients.getClienteById(entity.getIdCliente());
-        String cliente = clientesResponse.nombre() + " " +  clientesResponse.apellido();
+        String cliente = entity.getNombreCliente() != null
+                ? entity.getNombreCliente()
+                : nombreCompleto(clientesResolver.obtener(entity.getIdCliente()));
 
-
-        double total = entity.getProductos()
-                .stream()
-                .mapToDouble(p -> p.getPrecio() * p.getCantidad())
-                .sum();
+        // Los pedidos anteriores a la columna TOTAL mantenida pueden no tenerlo aún
+        double total = entity.getTotal() != null
+                ? entity.getTotal()
+                : entity.getProductos()
+                        .stream()
+                        .mapToDouble(p -> p.getPrecio() * p.getCantidad())
+                        .sum();
 
         List<Map<String, Object>> productos = entity.getProductos()
                 .stream()
                 .map(p -> {
-                    ProductoResponse productoResponse = productoClient.getProductoById(p.getIdProducto());
+                    String nombre = p.getNombre();
+                    String descripcion = p.getDescripcion();
+                    if (!p.tieneSnapshot()) {
+                        ProductoResponse productoResponse = buscarProducto(productosPorId, p.getIdProducto());
+                        if (ProductoClientFallback.esSinDatos(productoResponse)) {
+                            return lineaSinDatos(p);
+                        }
+                        nombre = productoResponse.nombre();
+                        descripcion = productoResponse.descripcion();
+                    }
                     return Map.<String, Object>of(
                             "id", p.getIdProducto(),
-                            "nombre", productoResponse.nombre(),
-                            "descripcion", productoResponse.descripcion(),
+                            "nombre", nombre,
+                            "descripcion", descripcion,
                             "precio", p.getPrecio(),
                             "cantidad", p.getCantidad()
                     );
@@ -99,6 +193,68 @@ public class PedidoMapper extends CommonMapper<PedidosRequest, PedidosResponse,
         return response;
     }
 
+    /**
+     * Resuelve en paralelo, solo para las partes sin foto, los clientes (quedan en el
+     * ClientesResolver de la petición) y los productos. Si todo tiene foto no hay llamadas.
+     * Los ids se recogen en el hilo actual para no inicializar colecciones perezosas
+     * de Hibernate desde otro hilo.
+     */
+    private Map<Long, ProductoResponse> enriquecer(List<Pedido> pedidos) {
+        List<Long> idsClientes = pedidos.stream()
+                .filter(p -> p.getNombreCliente() == null)
+                .map(Pedido::getIdCliente)
+                .distinct()
+                .toList();
+        List<Long> idsProductos = pedidos.stream()
+                .flatMap(p -> p.getProductos().stream())
+                .filter(pp -> !pp.tieneSnapshot())
+                .map(ProductoPedido::getIdProducto)
+                .distinct()
+                .toList();
+
+        if (idsClientes.isEmpty() && idsProductos.isEmpty()) {
+            return Map.of();
+        }
+        CompletableFuture<Void> clientes = fanOut.ejecutar(() -> {
+            if (!idsClientes.isEmpty()) {
+                clientesResolver.precargar(idsClientes);
+            }
+        });
+        CompletableFuture<Map<Long, ProductoResponse>> productos = fanOut.enviar(() ->
+                idsProductos.isEmpty() ? Map.<Long, ProductoResponse>of() : productoCache.obtenerTodos(idsProductos));
+        fanOut.esperar(clientes, productos);
+        return productos.join();
+    }
+
+    private static ProductoResponse buscarProducto(Map<Long, ProductoResponse> productosPorId, Long idProducto) {
+        ProductoResponse productoResponse = productosPorId.get(idProducto);
+        if (productoResponse == null) {
+            throw new NoSuchElementException("No se encontró el producto " + idProducto);
+        }
+        return productoResponse;
+    }
+
+    // Map.of no admite nulls
+    private static Map<String, Object> lineaSinDatos(ProductoPedido p) {
+        Map<String, Object> linea = new LinkedHashMap<>();
+        linea.put("id", p.getIdProducto());
+        linea.put("nombre", null);
+        linea.put("descripcion", null);
+        linea.put("precio", p.getPrecio());
+        linea.put("cantidad", p.getCantidad());
+        return linea;
+    }
+
+    /**
+     * Nombre y apellido del cliente, o null si es un cliente "sin datos" del fallback.
+     */
+    public static String nombreCompleto(ClientesResponse cliente) {
+        if (ClientesClientsFallback.esSinDatos(cliente)) {
+            return null;
+        }
+        return cliente.nombre() + " " + cliente.apellido();
+    }
+
 
     private Producto productoResponseToProducto(ProductoResponse response) {
         if(response == null) {
@@ -2,18 +2,63 @@ package com.ecommerce.msvpedidos.repositories;
 
 import com.ecommerce.msvpedidos.entities.Pedido;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
 public interface PedidosRepository extends JpaRepository<Pedido, Long> {
-	@Query(nativeQuery = true, value = "SELECT CASE WHEN COUNT(*) > 0 THEN 1 ELSE 0 END FROM PEDIDOS WHERE ID_CLIENTE = :idCliente")
+	// Comprobaciones de integridad al eliminar un cliente/producto (1 si existe, 0 si no).
+	// EXISTS se detiene en la primera fila del índice (V2__indices_referencias) en lugar de
+	// contar todas: el coste no crece con los pedidos del cliente/producto
+	@Query(nativeQuery = true, value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM PEDIDOS WHERE ID_CLIENTE = :idCliente) THEN 1 ELSE 0 END FROM DUAL")
 	int existsByIdCliente(@Param("idCliente") Long idCliente);
 
+	@Query(nativeQuery = true, value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM PRODUCTOS_PEDIDOS WHERE ID_PRODUCTOS = :idProducto) THEN 1 ELSE 0 END FROM DUAL")
+	int existsByIdProducto(@Param("idProducto") Long idProducto);
+
+	// Variantes que cargan las líneas del pedido en la misma consulta (evita un SELECT por pedido)
+	@EntityGraph(attributePaths = "productos")
+	@Query("SELECT p FROM Pedido p")
+	List<Pedido> findAllConProductos();
+
+	@EntityGraph(attributePaths = "productos")
+	Optional<Pedido> findConProductosById(Long id);
+
+	@Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.productos WHERE p.id IN :ids ORDER BY p.id")
+	List<Pedido> findConProductosByIds(@Param("ids") Collection<Long> ids);
+
+	// Paginación por cursor: recorre el índice de la PK en lugar de usar OFFSET
+	@Query(nativeQuery = true, value = "SELECT * FROM PEDIDOS WHERE ID_PEDIDOS > :after ORDER BY ID_PEDIDOS FETCH FIRST :limite ROWS ONLY")
+	List<Pedido> findSiguientes(@Param("after") Long after, @Param("limite") int limite);
+
+	@Query(nativeQuery = true, value = "SELECT * FROM PEDIDOS WHERE ID_PEDIDOS < :before ORDER BY ID_PEDIDOS DESC FETCH FIRST :limite ROWS ONLY")
+	List<Pedido> findAnteriores(@Param("before") Long before, @Param("limite") int limite);
+
+	// Recorre todos los pedidos con un cursor de BD; se debe consumir dentro de una transacción y cerrar el Stream
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("SELECT p FROM Pedido p ORDER BY p.id")
+	Stream<Pedido> streamAll();
 
-	@Query(nativeQuery = true, value = "SELECT COUNT(*) FROM PRODUCTOS_PEDIDOS WHERE ID_PRODUCTOS = :idProducto")
-int existsByIdProducto(Long idProducto);
+	// Ids (por cursor; Oracle los devuelve como NUMBER) de pedidos escritos antes de guardar la foto de cliente/productos y el total
+	@Query(nativeQuery = true, value = "SELECT p.ID_PEDIDOS FROM PEDIDOS p WHERE p.ID_PEDIDOS > :after"
+			+ " AND (p.NOMBRE_CLIENTE IS NULL OR p.TOTAL IS NULL OR EXISTS (SELECT 1 FROM PRODUCTOS_PEDIDOS pp"
+			+ " WHERE pp.ID_PEDIDOS = p.ID_PEDIDOS AND (pp.NOMBRE IS NULL OR pp.DESCRIPCION IS NULL)))"
+			+ " ORDER BY p.ID_PEDIDOS FETCH FIRST :limite ROWS ONLY")
+	List<Number> findIdsSinSnapshot(@Param("after") Long after, @Param("limite") int limite);
 
 
 
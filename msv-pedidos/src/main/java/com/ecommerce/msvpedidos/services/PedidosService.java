@@ -1,5 +1,10 @@
 package com.ecommerce.msvpedidos.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.ecommerce.commons.dto.CargaMasivaResponse;
 import com.ecommerce.commons.dto.PedidosRequest;
 import com.ecommerce.commons.dto.PedidosResponse;
 
@@ -12,6 +17,19 @@ public interface PedidosService extends CommonService<PedidosRequest, PedidosRes
 	boolean productoIsPresent(Long id);
 
 	PedidosResponse cambiarEstado(String estado,Long id);
+
+	/**
+	 * Escribe todos los pedidos en formato NDJSON (un JSON por línea).
+	 * Los pedidos se leen con un cursor de BD y se enriquecen por bloques,
+	 * por lo que la memoria usada no depende del tamaño de la tabla.
+	 */
+	void exportar(OutputStream salida) throws IOException;
+
+	/**
+	 * Inserta muchos pedidos a la vez. Se guardan por bloques, cada uno en su
+	 * propia transacción, y se informa el resultado de cada pedido por separado.
+	 */
+	CargaMasivaResponse insertarMasivo(List<PedidosRequest> requests);
 	
 	
 	
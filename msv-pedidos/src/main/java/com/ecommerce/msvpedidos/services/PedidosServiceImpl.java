@@ -1,87 +1,401 @@
 package com.ecommerce.msvpedidos.services;
+import com.ecommerce.commons.configuration.FallbackFeign;
+import com.ecommerce.commons.configuration.FanOutExecutor;
+import com.ecommerce.commons.dto.CargaMasivaResponse;
+import com.ecommerce.commons.dto.CargaMasivaResponse.Resultado;
+import com.ecommerce.commons.dto.MovimientoStockRequest;
+import com.ecommerce.commons.dto.PaginaResponse;
 import com.ecommerce.commons.dto.PedidosRequest;
 import com.ecommerce.commons.dto.PedidosResponse;
+import com.ecommerce.msvpedidos.clients.ClientesResolver;
 import com.ecommerce.msvpedidos.clients.ProductoClient;
+import com.ecommerce.commons.dto.ProductoResponse;
+import com.ecommerce.commons.dto.StockRequest;
+import com.ecommerce.commons.exceptions.EntidadRelacionadaException;
 import com.ecommerce.msvpedidos.entities.Pedido;
 import com.ecommerce.msvpedidos.entities.ProductoPedido;
 import com.ecommerce.msvpedidos.mappers.PedidoMapper;
 import com.ecommerce.msvpedidos.repositories.PedidosRepository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.FeignException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 @Service
 public class PedidosServiceImpl implements PedidosService{
 
+	private static final Logger LOGGER = Logger.getLogger(PedidosServiceImpl.class.getName());
+
+	// Número de pedidos que se enriquecen y escriben juntos durante la exportación
+	private static final int TAMANO_BLOQUE_EXPORTACION = 200;
+
+	// Las compensaciones de stock son idempotentes y se reintentan con el mismo id
+	private static final int INTENTOS_COMPENSACION = 3;
+
     private final PedidosRepository repository;
 	private final PedidoMapper mapper;
-	private final ProductoClient  productoClient;
+	private final ClientesResolver clientesResolver;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+	private final FanOutExecutor fanOut;
+	private final Validator validator;
+	private final TransactionTemplate transactionTemplate;
+	private final ProductoClient productoClient;
+	// Pedidos por transacción en la carga masiva
+	private final int tamanoBloqueCarga;
 
-	public PedidosServiceImpl(PedidosRepository repository, PedidoMapper mapper, ProductoClient productoClient) {
+	public PedidosServiceImpl(PedidosRepository repository, PedidoMapper mapper, ClientesResolver clientesResolver,
+			EntityManager entityManager, ObjectMapper objectMapper, FanOutExecutor fanOut, Validator validator,
+			PlatformTransactionManager transactionManager, ProductoClient productoClient,
+			@Value("${pedidos.bulk.tamano-bloque:500}") int tamanoBloqueCarga) {
 		super();
 		this.repository = repository;
 		this.mapper = mapper;
-        this.productoClient = productoClient;
+		this.clientesResolver = clientesResolver;
+		this.entityManager = entityManager;
+		this.objectMapper = objectMapper;
+		this.fanOut = fanOut;
+		this.validator = validator;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.productoClient = productoClient;
+		this.tamanoBloqueCarga = tamanoBloqueCarga;
     }
 
 	@Override
 	@Transactional(readOnly = true)
 	public List<PedidosResponse> listar() {
-		return repository.findAll().stream()
-				.map(mapper::entityToResponse).toList();
+		return mapper.entitiesToResponse(repository.findAllConProductos());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaResponse<PedidosResponse> listarPorCursor(Long after, int limite, boolean descendente) {
+		// Se pide una fila extra para saber si existe una página siguiente
+		List<Pedido> filas = descendente
+				? repository.findAnteriores(after != null ? after : Long.MAX_VALUE, limite + 1)
+				: repository.findSiguientes(after != null ? after : 0L, limite + 1);
+		return PaginaResponse.deCursor(filas, limite, Pedido::getId, mapper::entitiesToResponse);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaResponse<PedidosResponse> listarPorPagina(int pagina, int limite, boolean descendente) {
+		Page<Pedido> page = repository.findAll(PageRequest.of(pagina, limite,
+				Sort.by(descendente ? Sort.Direction.DESC : Sort.Direction.ASC, "id")));
+		return PaginaResponse.dePagina(mapper.entitiesToResponse(page.getContent()),
+				pagina, limite, page.getTotalElements(), page.hasNext());
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public PedidosResponse obtenerPorId(Long id) {
-		return mapper.entityToResponse(repository.findById(id).orElseThrow());
+		return mapper.entityToResponse(repository.findConProductosById(id).orElseThrow());
 	}
 
 	@Override
-	@Transactional
 	public PedidosResponse insertar(PedidosRequest request) {
-		return mapper.entityToResponse(repository.save(mapper.requestToEntity(request)));
+		Pedido pedido = mapper.requestToEntity(request);
+		// La reserva es remota: se hace antes de abrir la transacción local y se compensa si el guardado falla
+		String idReserva = reservarStock(lineasDeStock(List.of(request)));
+		Pedido guardado;
+		try {
+			guardado = transactionTemplate.execute(status -> repository.saveAndFlush(pedido));
+		} catch (RuntimeException e) {
+			anularReserva(idReserva);
+			throw e;
+		}
+		// Fuera del try: si falla la respuesta, el pedido ya está guardado y conserva su stock
+		return mapper.entityToResponse(guardado);
 	}
 
 	@Override
-	public PedidosResponse actualizar(PedidosRequest request, Long id) {
-		Pedido pedido = repository.findById(id).orElseThrow();
+	public CargaMasivaResponse insertarMasivo(List<PedidosRequest> requests) {
+		List<Resultado> resultados = new ArrayList<>(requests.size());
+		for (int inicio = 0; inicio < requests.size(); inicio += tamanoBloqueCarga) {
+			List<PedidosRequest> bloque = requests.subList(inicio, Math.min(inicio + tamanoBloqueCarga, requests.size()));
+			resultados.addAll(insertarBloque(bloque, inicio));
+			// Cada bloque empieza con caches de petición y contexto de persistencia vacíos
+			clientesResolver.limpiar();
+			entityManager.clear();
+			fanOut.reiniciarPlazo();
+		}
+		return CargaMasivaResponse.de(resultados);
+	}
 
-		pedido.setEstado(request.estado());
-		//pedido.setFechaCreacion(request.fechaCreacion());
-		pedido.setIdCliente(request.idCliente());
+	/**
+	 * Guarda un bloque en una sola transacción (inserts agrupados por JDBC batch).
+	 * Si el bloque falla se reintenta pedido por pedido para aislar los que fallan.
+	 */
+	private List<Resultado> insertarBloque(List<PedidosRequest> bloque, int desplazamiento) {
+		Resultado[] resultados = new Resultado[bloque.size()];
+		Map<Integer, PedidosRequest> validos = new LinkedHashMap<>();
+		for (int i = 0; i < bloque.size(); i++) {
+			String error = validar(bloque.get(i));
+			if (error != null) {
+				resultados[i] = Resultado.fallo(desplazamiento + i, error);
+			} else {
+				validos.put(i, bloque.get(i));
+			}
+		}
 
-		Set<ProductoPedido> nuevosProductos = request.productos().stream().map(item -> {
-			var productoResponse = productoClient.getProductoById(item.idProducto());
-			ProductoPedido pp = new ProductoPedido();
-			pp.setPedido(pedido);
-			pp.setIdProducto(productoResponse.id());
-			pp.setCantidad(item.cantidad());
-			pp.setPrecio(item.precio());
+		Map<Long, ProductoResponse> productos;
+		try {
+			productos = validos.isEmpty() ? Map.of() : mapper.precargar(validos.values());
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "No se pudieron resolver clientes/productos del bloque " + desplazamiento, e);
+			validos.keySet().forEach(i -> resultados[i] = Resultado.fallo(desplazamiento + i, mensaje(e)));
+			return Arrays.asList(resultados);
+		}
 
-			return pp;
-		}).collect(Collectors.toSet());
+		Map<Integer, Pedido> pedidos = new LinkedHashMap<>();
+		validos.forEach((i, request) -> {
+			try {
+				pedidos.put(i, mapper.requestToEntity(request, productos));
+			} catch (RuntimeException e) {
+				resultados[i] = Resultado.fallo(desplazamiento + i, mensaje(e));
+			}
+		});
 
+		if (pedidos.isEmpty()) {
+			return Arrays.asList(resultados);
+		}
 
-		pedido.getProductos().clear();
-		pedido.getProductos().addAll(nuevosProductos);
+		// Una sola reserva para todo el bloque. Solo un rechazo (409, p. ej. un producto sin stock) permite
+		// reservar pedido por pedido; con otro error la reserva pudo aplicarse y el bloque falla sin reintentar
+		List<StockRequest> reservaBloque = lineasDeStock(pedidos.keySet().stream().map(bloque::get).toList());
+		String idReserva;
+		try {
+			idReserva = reservarStock(reservaBloque);
+		} catch (FeignException.Conflict e) {
+			LOGGER.log(Level.INFO, "Reserva de stock rechazada para el bloque " + desplazamiento + ", se reserva pedido por pedido");
+			pedidos.keySet().forEach(i -> resultados[i] = insertarUno(bloque.get(i), productos, desplazamiento + i));
+			return Arrays.asList(resultados);
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "No se pudo reservar el stock del bloque " + desplazamiento, e);
+			pedidos.keySet().forEach(i -> resultados[i] = Resultado.fallo(desplazamiento + i, mensaje(e)));
+			return Arrays.asList(resultados);
+		}
 
-		Pedido updated = repository.save(pedido);
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				repository.saveAll(pedidos.values());
+				repository.flush();
+			});
+			pedidos.forEach((i, pedido) -> resultados[i] = Resultado.exito(desplazamiento + i, pedido.getId()));
+		} catch (RuntimeException e) {
+			entityManager.clear();
+			if (!anularReserva(idReserva)) {
+				// Reservar otra vez pedido por pedido descontaría dos veces el stock que no se pudo devolver
+				pedidos.keySet().forEach(i -> resultados[i] = Resultado.fallo(desplazamiento + i, mensaje(e)));
+				return Arrays.asList(resultados);
+			}
+			LOGGER.log(Level.WARNING, "Falló el bloque " + desplazamiento + ", se reintenta pedido por pedido", e);
+			// Se reconstruyen las entidades: las del intento fallido ya tienen ids asignados
+			pedidos.keySet().forEach(i -> resultados[i] = insertarUno(bloque.get(i), productos, desplazamiento + i));
+		}
+		return Arrays.asList(resultados);
+	}
+
+	private Resultado insertarUno(PedidosRequest request, Map<Long, ProductoResponse> productos, int indice) {
+		String idReserva;
+		try {
+			idReserva = reservarStock(lineasDeStock(List.of(request)));
+		} catch (RuntimeException e) {
+			return Resultado.fallo(indice, mensaje(e));
+		}
+		try {
+			Long id = transactionTemplate.execute(status ->
+					repository.saveAndFlush(mapper.requestToEntity(request, productos)).getId());
+			return Resultado.exito(indice, id);
+		} catch (RuntimeException e) {
+			entityManager.clear();
+			anularReserva(idReserva);
+			return Resultado.fallo(indice, mensaje(e));
+		}
+	}
+
+	private static List<StockRequest> lineasDeStock(Collection<PedidosRequest> requests) {
+		return requests.stream()
+				.flatMap(r -> r.productos().stream())
+				.map(p -> new StockRequest(p.idProducto(), p.cantidad()))
+				.toList();
+	}
+
+	/**
+	 * Reserva con un id propio y lo devuelve para poder anularla.
+	 * Un 4xx es un rechazo (no se reservó nada) y se relanza tal cual. Con cualquier otro
+	 * error (timeout, 5xx) msv-productos pudo haberla aplicado sin que llegara la respuesta,
+	 * así que se anula por id antes de relanzar.
+	 */
+	private String reservarStock(List<StockRequest> lineas) {
+		String idReserva = UUID.randomUUID().toString();
+		try {
+			productoClient.reservarStock(new MovimientoStockRequest(idReserva, lineas));
+			return idReserva;
+		} catch (FeignException.FeignClientException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			if (!FallbackFeign.noEnviada(e)) {
+				anularReserva(idReserva);
+			}
+			throw e;
+		}
+	}
+
+	// Si no se puede anular el stock queda descontado de más y se deja constancia en el log
+	private boolean anularReserva(String idReserva) {
+		return compensar("anular la reserva de stock " + idReserva, () -> productoClient.anularReserva(idReserva));
+	}
+
+	// Devuelve las unidades que un pedido ya no usa; si falla quedan reservadas (nunca se sobrevende)
+	private void devolverStock(List<StockRequest> lineas) {
+		if (lineas.isEmpty()) {
+			return;
+		}
+		MovimientoStockRequest devolucion = new MovimientoStockRequest(UUID.randomUUID().toString(), lineas);
+		compensar("devolver el stock " + lineas, () -> productoClient.liberarStock(devolucion));
+	}
+
+	private static boolean compensar(String descripcion, Runnable llamada) {
+		for (int intento = 1; ; intento++) {
+			try {
+				llamada.run();
+				return true;
+			} catch (RuntimeException e) {
+				if (intento == INTENTOS_COMPENSACION) {
+					LOGGER.log(Level.SEVERE, "No se pudo " + descripcion, e);
+					return false;
+				}
+			}
+		}
+	}
+
+	// Validación por elemento: un pedido inválido no rechaza toda la carga
+	private String validar(PedidosRequest request) {
+		if (request == null) {
+			return "El pedido es obligatorio";
+		}
+		Set<ConstraintViolation<PedidosRequest>> violaciones = validator.validate(request);
+		return violaciones.stream()
+				.map(v -> v.getPropertyPath() + ": " + v.getMessage())
+				.findFirst()
+				.orElse(null);
+	}
+
+	private static String mensaje(RuntimeException e) {
+		if (e instanceof FeignException.Conflict) {
+			return "Stock insuficiente para uno o más productos";
+		}
+		Throwable raiz = e;
+		while (raiz.getCause() != null && raiz.getCause() != raiz) {
+			raiz = raiz.getCause();
+		}
+		return raiz.getMessage() != null ? raiz.getMessage() : raiz.getClass().getSimpleName();
+	}
+
+	@Override
+	public PedidosResponse actualizar(PedidosRequest request, Long id) {
+		// Se reserva solo lo que aumenta cada producto; lo que disminuye se devuelve al confirmar
+		Map<Long, Integer> anteriores = transactionTemplate.execute(status ->
+				cantidades(repository.findConProductosById(id).orElseThrow()));
+		Map<Long, Integer> nuevas = cantidades(request);
+		List<StockRequest> aReservar = diferencia(nuevas, anteriores);
+		List<StockRequest> aDevolver = diferencia(anteriores, nuevas);
+
+		String idReserva = aReservar.isEmpty() ? null : reservarStock(aReservar);
+		Pedido updated;
+		try {
+			updated = transactionTemplate.execute(status -> {
+				// Bloqueado hasta confirmar: otra actualización no puede cambiar las cantidades entre medias
+				entityManager.find(Pedido.class, id, LockModeType.PESSIMISTIC_WRITE);
+				Pedido pedido = repository.findConProductosById(id).orElseThrow();
+				if (!cantidades(pedido).equals(anteriores)) {
+					throw new EntidadRelacionadaException("El pedido " + id + " se modificó durante la actualización");
+				}
+				//pedido.setFechaCreacion(request.fechaCreacion());
+				mapper.aplicarRequest(pedido, request);
+				return repository.save(pedido);
+			});
+		} catch (RuntimeException e) {
+			if (idReserva != null) {
+				anularReserva(idReserva);
+			}
+			throw e;
+		}
+		devolverStock(aDevolver);
 		return mapper.entityToResponse(updated);
 	}
 
 	@Override
-	@Transactional
 	public PedidosResponse eliminar(Long id) {
-		Pedido pedido = repository.findById(id).orElseThrow();
-		repository.deleteById(id);
+		Pedido pedido = transactionTemplate.execute(status -> {
+			Pedido eliminado = repository.findConProductosById(id).orElseThrow();
+			repository.deleteById(id);
+			return eliminado;
+		});
+		// Las unidades vuelven al stock una vez confirmado el borrado
+		devolverStock(pedido.getProductos().stream()
+				.map(pp -> new StockRequest(pp.getIdProducto(), pp.getCantidad()))
+				.toList());
 		return mapper.entityToResponse(pedido);
 	}
+
+	private static Map<Long, Integer> cantidades(Pedido pedido) {
+		Map<Long, Integer> porProducto = new TreeMap<>();
+		for (ProductoPedido pp : pedido.getProductos()) {
+			porProducto.merge(pp.getIdProducto(), pp.getCantidad(), Integer::sum);
+		}
+		return porProducto;
+	}
+
+	private static Map<Long, Integer> cantidades(PedidosRequest request) {
+		Map<Long, Integer> porProducto = new TreeMap<>();
+		request.productos().forEach(p -> porProducto.merge(p.idProducto(), p.cantidad(), Integer::sum));
+		return porProducto;
+	}
+
+	// Unidades de cada producto en las que "mayor" supera a "menor"
+	private static List<StockRequest> diferencia(Map<Long, Integer> mayor, Map<Long, Integer> menor) {
+		List<StockRequest> lineas = new ArrayList<>();
+		mayor.forEach((idProducto, cantidad) -> {
+			int exceso = cantidad - menor.getOrDefault(idProducto, 0);
+			if (exceso > 0) {
+				lineas.add(new StockRequest(idProducto, exceso));
+			}
+		});
+		return lineas;
+	}
 	
 	
 	@Override
@@ -99,10 +413,42 @@ public class PedidosServiceImpl implements PedidosService{
 	@Override
 	@Transactional
 	public PedidosResponse cambiarEstado(String estado,Long id) {
-		Pedido pedido = repository.findById(id).orElseThrow();
+		Pedido pedido = repository.findConProductosById(id).orElseThrow();
 		pedido.setEstado(estado);
 		Pedido updated = repository.save(pedido);
 		return mapper.entityToResponse(updated);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public void exportar(OutputStream salida) throws IOException {
+		List<Pedido> bloque = new ArrayList<>(TAMANO_BLOQUE_EXPORTACION);
+		try (Stream<Pedido> pedidos = repository.streamAll()) {
+			Iterator<Pedido> iterador = pedidos.iterator();
+			while (iterador.hasNext()) {
+				bloque.add(iterador.next());
+				if (bloque.size() == TAMANO_BLOQUE_EXPORTACION) {
+					escribirBloque(bloque, salida);
+				}
+			}
+		}
+		if (!bloque.isEmpty()) {
+			escribirBloque(bloque, salida);
+		}
+	}
+
+	// Enriquece un bloque (una llamada de productos y una de clientes), lo escribe y libera la memoria usada
+	private void escribirBloque(List<Pedido> bloque, OutputStream salida) throws IOException {
+		for (PedidosResponse response : mapper.entitiesToResponse(bloque)) {
+			salida.write(objectMapper.writeValueAsBytes(response));
+			salida.write('\n');
+		}
+		salida.flush();
+		bloque.clear();
+		clientesResolver.limpiar();
+		fanOut.reiniciarPlazo();
+		// Desprende las entidades ya escritas para que el contexto de persistencia no crezca
+		entityManager.clear();
+	}
+
 }
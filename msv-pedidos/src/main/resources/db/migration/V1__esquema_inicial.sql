@@ -0,0 +1,23 @@
+-- Esquema de msv-pedidos anterior a las migraciones (las bases existentes se marcan como V1).
+CREATE SEQUENCE PEDIDOS_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE SEQUENCE PRODUCTOS_PEDIDOS_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE TABLE PEDIDOS (
+    ID_PEDIDOS      NUMBER(19)      NOT NULL,
+    ID_CLIENTE      NUMBER(19)      NOT NULL,
+    TOTAL           NUMBER(12, 2),
+    FECHA_CREACION  TIMESTAMP       NOT NULL,
+    ESTADO          VARCHAR2(20)    NOT NULL,
+    CONSTRAINT PK_PEDIDOS PRIMARY KEY (ID_PEDIDOS)
+);
+
+CREATE TABLE PRODUCTOS_PEDIDOS (
+    ID_PRODUCTOS_PEDIDOS  NUMBER(19)      NOT NULL,
+    ID_PEDIDOS            NUMBER(19)      NOT NULL,
+    ID_PRODUCTOS          NUMBER(19)      NOT NULL,
+    CANTIDAD              NUMBER(10)      NOT NULL,
+    PRECIO                NUMBER(12, 2)   NOT NULL,
+    CONSTRAINT PK_PRODUCTOS_PEDIDOS PRIMARY KEY (ID_PRODUCTOS_PEDIDOS),
+    CONSTRAINT FK_PRODUCTOS_PEDIDOS_PEDIDO FOREIGN KEY (ID_PEDIDOS) REFERENCES PEDIDOS (ID_PEDIDOS)
+);
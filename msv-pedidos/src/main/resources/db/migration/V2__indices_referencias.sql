@@ -0,0 +1,6 @@
+-- Índices para las comprobaciones de integridad que hacen msv-clientes y msv-productos
+-- antes de eliminar (PedidosRepository.existsByIdCliente / existsByIdProducto).
+-- La consulta solo usa la columna indexada, así que se resuelve con el índice sin leer la tabla.
+CREATE INDEX IDX_PEDIDOS_ID_CLIENTE ON PEDIDOS (ID_CLIENTE);
+
+CREATE INDEX IDX_PRODUCTOS_PEDIDOS_ID_PROD ON PRODUCTOS_PEDIDOS (ID_PRODUCTOS);
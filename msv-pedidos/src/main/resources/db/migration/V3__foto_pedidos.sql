@@ -0,0 +1,21 @@
+-- Foto del cliente y de los productos guardada al escribir el pedido (Pedido.nombreCliente,
+-- ProductoPedido.nombre/descripcion). Las filas antiguas quedan en NULL hasta que las
+-- completa SnapshotBackfillJob.
+-- Las entidades mapean estas columnas desde antes de que existieran las migraciones, así que
+-- una base puede tenerlas ya añadidas a mano: solo se crean las que faltan.
+DECLARE
+    PROCEDURE agregar(tabla VARCHAR2, columna VARCHAR2, tipo VARCHAR2) IS
+        existentes NUMBER;
+    BEGIN
+        SELECT COUNT(*) INTO existentes FROM USER_TAB_COLUMNS
+         WHERE TABLE_NAME = tabla AND COLUMN_NAME = columna;
+        IF existentes = 0 THEN
+            EXECUTE IMMEDIATE 'ALTER TABLE ' || tabla || ' ADD (' || columna || ' ' || tipo || ')';
+        END IF;
+    END;
+BEGIN
+    agregar('PEDIDOS', 'NOMBRE_CLIENTE', 'VARCHAR2(101)');
+    agregar('PRODUCTOS_PEDIDOS', 'NOMBRE', 'VARCHAR2(30)');
+    agregar('PRODUCTOS_PEDIDOS', 'DESCRIPCION', 'VARCHAR2(150)');
+END;
+/
@@ -0,0 +1,6 @@
+-- Las entidades reservan 50 ids por llamada a la secuencia (allocationSize = 50, optimizador
+-- pooled): la secuencia debe avanzar lo mismo. CACHE guarda en memoria de Oracle los
+-- siguientes valores (100 x 50 ids) para que la carga masiva no espere al diccionario.
+ALTER SEQUENCE PEDIDOS_SEQ INCREMENT BY 50 CACHE 100;
+
+ALTER SEQUENCE PRODUCTOS_PEDIDOS_SEQ INCREMENT BY 50 CACHE 100;
@@ -0,0 +1,4 @@
+-- Oracle no indexa las claves foráneas. Sin este índice, cargar las líneas de una página de
+-- pedidos (IN sobre ID_PEDIDOS) recorre PRODUCTOS_PEDIDOS completa y eliminar un pedido
+-- bloquea la tabla hija entera.
+CREATE INDEX IDX_PRODUCTOS_PEDIDOS_PEDIDO ON PRODUCTOS_PEDIDOS (ID_PEDIDOS);
@@ -0,0 +1,83 @@
+package com.ecommerce.msvpedidos.clients;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.commons.dto.ProductoResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Caché de productos frente a invalidaciones que llegan mientras una carga espera a msv-productos.
+ */
+class ProductoCacheTest {
+
+	private static final ProductoResponse TECLADO = new ProductoResponse(1L, "Teclado", "Mecánico", 50.0, 10);
+
+	private static final ProductoResponse RATON = new ProductoResponse(2L, "Ratón", "Óptico", 20.0, 5);
+
+	private final ProductoClient productoClient = mock(ProductoClient.class);
+
+	private final ProductoCache cache = new ProductoCache(productoClient, new SimpleMeterRegistry(),
+			Duration.ofMinutes(10), 100);
+
+	@Test
+	void sirveDeCacheLosProductosYaCargados() {
+		when(productoClient.getProductosByIds(anyCollection())).thenReturn(List.of(TECLADO, RATON));
+
+		cache.obtenerTodos(List.of(1L, 2L));
+		Map<Long, ProductoResponse> productos = cache.obtenerTodos(List.of(1L, 2L));
+
+		assertEquals(Map.of(1L, TECLADO, 2L, RATON), productos);
+		verify(productoClient, times(1)).getProductosByIds(anyCollection());
+	}
+
+	@Test
+	void unaInvalidacionDuranteLaCargaNoSePierde() throws Exception {
+		CountDownLatch enCurso = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		when(productoClient.getProductosByIds(anyCollection()))
+				.thenAnswer(i -> {
+					enCurso.countDown();
+					liberar.await(5, TimeUnit.SECONDS);
+					return List.of(TECLADO, RATON);
+				})
+				.thenReturn(List.of(TECLADO));
+		CompletableFuture<Map<Long, ProductoResponse>> carga =
+				CompletableFuture.supplyAsync(() -> cache.obtenerTodos(List.of(1L, 2L)));
+		enCurso.await(5, TimeUnit.SECONDS);
+
+		cache.invalidar(1L);
+		liberar.countDown();
+
+		// La carga en curso devuelve lo que leyó, pero no guarda el producto invalidado
+		assertEquals(Map.of(1L, TECLADO, 2L, RATON), carga.get(5, TimeUnit.SECONDS));
+		cache.obtenerTodos(List.of(1L, 2L));
+		verify(productoClient).getProductosByIds(List.of(1L));
+		verify(productoClient, times(2)).getProductosByIds(anyCollection());
+	}
+
+	@Test
+	void noGuardaLosProductosSinDatosDelFallback() {
+		when(productoClient.getProductosByIds(anyCollection()))
+				.thenReturn(List.of(new ProductoResponse(1L, null, null, null, null)))
+				.thenReturn(List.of(TECLADO));
+
+		cache.obtenerTodos(List.of(1L));
+
+		assertEquals(Map.of(1L, TECLADO), cache.obtenerTodos(List.of(1L)));
+	}
+}
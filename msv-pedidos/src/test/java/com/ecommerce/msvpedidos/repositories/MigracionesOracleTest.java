@@ -0,0 +1,113 @@
+package com.ecommerce.msvpedidos.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.oracle.OracleContainer;
+
+import com.ecommerce.msvpedidos.entities.Pedido;
+import com.ecommerce.msvpedidos.entities.ProductoPedido;
+
+/**
+ * Aplica las migraciones de Flyway sobre un Oracle Free en contenedor y comprueba que las
+ * entidades trabajan con el esquema resultante, que las secuencias avanzan lo mismo que
+ * allocationSize y que existen los índices. Se omite si no hay Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MigracionesOracleTest {
+
+	@Container
+	@ServiceConnection
+	static OracleContainer oracle = new OracleContainer("gvenzl/oracle-free:23-slim-faststart");
+
+	// Configuración mínima: evita arrancar MsvPedidosApplication (Feign, Eureka)
+	@Configuration
+	@EntityScan(basePackageClasses = Pedido.class)
+	@EnableJpaRepositories(basePackageClasses = PedidosRepository.class)
+	static class Config {
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PedidosRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void aplicaTodasLasMigraciones() {
+		assertEquals("5", flyway.info().current().getVersion().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+	}
+
+	@Test
+	void secuenciasCoincidenConAllocationSize() {
+		assertEquals(50, incremento("PEDIDOS_SEQ"));
+		assertEquals(50, incremento("PRODUCTOS_PEDIDOS_SEQ"));
+	}
+
+	@Test
+	void columnasDeReferenciaIndexadas() {
+		assertTrue(indexada("PEDIDOS", "ID_CLIENTE"));
+		assertTrue(indexada("PRODUCTOS_PEDIDOS", "ID_PRODUCTOS"));
+		assertTrue(indexada("PRODUCTOS_PEDIDOS", "ID_PEDIDOS"));
+	}
+
+	@Test
+	void guardaYLeePedidoConFoto() {
+		Pedido pedido = new Pedido();
+		pedido.setIdCliente(7L);
+		pedido.setNombreCliente("Ana López");
+		pedido.setEstado("CREADO");
+		ProductoPedido linea = new ProductoPedido();
+		linea.setPedido(pedido);
+		linea.setIdProducto(3L);
+		linea.setCantidad(2);
+		linea.setPrecio(10.5);
+		linea.setNombre("Producto 3");
+		linea.setDescripcion("Descripción del producto 3");
+		pedido.getProductos().add(linea);
+		pedido.recalcularTotal();
+		Long id = entityManager.persistFlushFind(pedido).getId();
+		entityManager.clear();
+
+		Pedido leido = repository.findConProductosById(id).orElseThrow();
+		assertEquals("Ana López", leido.getNombreCliente());
+		assertEquals(21.0, leido.getTotal());
+		assertEquals("Producto 3", leido.getProductos().iterator().next().getNombre());
+		assertEquals(1, repository.existsByIdCliente(7L));
+		assertEquals(1, repository.existsByIdProducto(3L));
+		assertEquals(0, repository.existsByIdProducto(4L));
+	}
+
+	private int incremento(String secuencia) {
+		return jdbcTemplate.queryForObject(
+				"SELECT INCREMENT_BY FROM USER_SEQUENCES WHERE SEQUENCE_NAME = ?", Integer.class, secuencia);
+	}
+
+	private boolean indexada(String tabla, String columna) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM USER_IND_COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = ? AND COLUMN_POSITION = 1",
+				Integer.class, tabla, columna) > 0;
+	}
+}
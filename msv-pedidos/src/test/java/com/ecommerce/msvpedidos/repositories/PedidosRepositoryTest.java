@@ -0,0 +1,133 @@
+package com.ecommerce.msvpedidos.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.ecommerce.msvpedidos.entities.Pedido;
+import com.ecommerce.msvpedidos.entities.ProductoPedido;
+
+/**
+ * Verifica con las estadísticas de Hibernate que el número de sentencias SQL
+ * para listar pedidos no crece con el número de pedidos (sin N+1 sobre PRODUCTOS_PEDIDOS).
+ */
+@DataJpaTest(properties = {
+		// El esquema lo crea Hibernate; las migraciones de Oracle se prueban en MigracionesOracleTest
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PedidosRepositoryTest {
+
+	// Configuración mínima: evita arrancar MsvPedidosApplication (Feign, Eureka)
+	@Configuration
+	@EntityScan(basePackageClasses = Pedido.class)
+	@EnableJpaRepositories(basePackageClasses = PedidosRepository.class)
+	static class Config {
+	}
+
+	@Autowired
+	private PedidosRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 50})
+	void listarConProductosUsaUnaSolaConsulta(int numeroPedidos) {
+		crearPedidos(numeroPedidos);
+
+		List<Pedido> pedidos = repository.findAllConProductos();
+		// El mapper recorre las líneas dos veces (total y lista de productos)
+		double total = pedidos.stream()
+				.flatMap(p -> p.getProductos().stream())
+				.mapToDouble(pp -> pp.getPrecio() * pp.getCantidad())
+				.sum();
+		long lineas = pedidos.stream().mapToLong(p -> p.getProductos().size()).sum();
+
+		assertEquals(numeroPedidos, pedidos.size());
+		assertEquals(numeroPedidos * 2L, lineas);
+		assertEquals(numeroPedidos * 25.0, total);
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void obtenerPorIdCargaLasLineasEnLaMismaConsulta() {
+		Long id = crearPedidos(3).get(1).getId();
+
+		Pedido pedido = repository.findConProductosById(id).orElseThrow();
+
+		assertEquals(2, pedido.getProductos().size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void paginaPorCursorCargaLasLineasEnBloque() {
+		crearPedidos(30);
+
+		List<Pedido> pagina = repository.findSiguientes(0L, 21);
+		pagina.forEach(p -> p.getProductos().size());
+
+		// Una consulta para la página y una sola IN (...) para todas sus líneas (default_batch_fetch_size)
+		assertEquals(21, pagina.size());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void existenciaDeClienteYProducto() {
+		crearPedidos(10);
+
+		assertEquals(1, repository.existsByIdCliente(3L));
+		assertEquals(0, repository.existsByIdCliente(99L));
+		assertEquals(1, repository.existsByIdProducto(2L));
+		assertEquals(0, repository.existsByIdProducto(99L));
+	}
+
+	// Persiste pedidos con dos líneas cada uno y deja limpio el contexto y las estadísticas
+	private List<Pedido> crearPedidos(int numeroPedidos) {
+		List<Pedido> pedidos = new ArrayList<>();
+		for (int i = 0; i < numeroPedidos; i++) {
+			Pedido pedido = new Pedido();
+			pedido.setIdCliente((long) (i % 5) + 1);
+			pedido.setEstado("PENDIENTE");
+			pedido.getProductos().add(linea(pedido, 1L, 1, 10.0));
+			pedido.getProductos().add(linea(pedido, 2L, 3, 5.0));
+			pedidos.add(entityManager.persist(pedido));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+		return pedidos;
+	}
+
+	private ProductoPedido linea(Pedido pedido, Long idProducto, int cantidad, double precio) {
+		ProductoPedido pp = new ProductoPedido();
+		pp.setPedido(pedido);
+		pp.setIdProducto(idProducto);
+		pp.setCantidad(cantidad);
+		pp.setPrecio(precio);
+		return pp;
+	}
+}
@@ -0,0 +1,205 @@
+package com.ecommerce.msvpedidos.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.ecommerce.commons.configuration.FanOutExecutor;
+import com.ecommerce.commons.dto.CargaMasivaResponse;
+import com.ecommerce.commons.dto.MovimientoStockRequest;
+import com.ecommerce.commons.dto.PedidosRequest;
+import com.ecommerce.commons.dto.StockRequest;
+import com.ecommerce.msvpedidos.clients.ClientesResolver;
+import com.ecommerce.msvpedidos.clients.ProductoClient;
+import com.ecommerce.msvpedidos.entities.Pedido;
+import com.ecommerce.msvpedidos.entities.ProductoPedido;
+import com.ecommerce.msvpedidos.mappers.PedidoMapper;
+import com.ecommerce.msvpedidos.repositories.PedidosRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.FeignException;
+import feign.Request;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.Validator;
+
+/**
+ * Reservas de stock de PedidosServiceImpl con msv-productos simulado: qué se reserva,
+ * qué se anula y qué se devuelve ante rechazos, errores sin respuesta y cambios de cantidades.
+ */
+class ReservaStockPedidosTest {
+
+	private final PedidosRepository repository = mock(PedidosRepository.class);
+	private final PedidoMapper mapper = mock(PedidoMapper.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final ProductoClient productoClient = mock(ProductoClient.class);
+
+	private PedidosServiceImpl service;
+
+	@BeforeEach
+	void preparar() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		service = new PedidosServiceImpl(repository, mapper, mock(ClientesResolver.class), entityManager,
+				new ObjectMapper(), mock(FanOutExecutor.class), mock(Validator.class), transactionManager,
+				productoClient, 500);
+	}
+
+	@Test
+	void insertarAnulaLaReservaSiNoLlegaRespuesta() {
+		when(mapper.requestToEntity(any(PedidosRequest.class))).thenReturn(new Pedido());
+		doThrow(new IllegalStateException("Read timed out")).when(productoClient).reservarStock(any());
+
+		assertThrows(IllegalStateException.class, () -> service.insertar(request(1L, 2)));
+
+		String idReserva = idReservaEnviada();
+		verify(productoClient).anularReserva(idReserva);
+	}
+
+	@Test
+	void insertarNoAnulaUnaReservaRechazada() {
+		when(mapper.requestToEntity(any(PedidosRequest.class))).thenReturn(new Pedido());
+		doThrow(conflicto()).when(productoClient).reservarStock(any());
+
+		assertThrows(FeignException.Conflict.class, () -> service.insertar(request(1L, 2)));
+
+		verify(productoClient, never()).anularReserva(anyString());
+	}
+
+	@Test
+	void insertarNoAnulaSiFallaLaRespuestaDeUnPedidoGuardado() {
+		Pedido pedido = new Pedido();
+		when(mapper.requestToEntity(any(PedidosRequest.class))).thenReturn(pedido);
+		when(repository.saveAndFlush(pedido)).thenReturn(pedido);
+		when(mapper.entityToResponse(pedido)).thenThrow(new IllegalStateException("fallo al mapear"));
+
+		assertThrows(IllegalStateException.class, () -> service.insertar(request(1L, 2)));
+
+		verify(productoClient, never()).anularReserva(anyString());
+	}
+
+	@Test
+	void cargaMasivaNoReservaPedidoPorPedidoSinRespuestaDelBloque() {
+		when(mapper.precargar(any())).thenReturn(Map.of());
+		when(mapper.requestToEntity(any(PedidosRequest.class), any())).thenAnswer(i -> new Pedido());
+		doThrow(new IllegalStateException("Read timed out")).when(productoClient).reservarStock(any());
+
+		CargaMasivaResponse respuesta = service.insertarMasivo(List.of(request(1L, 2), request(2L, 3)));
+
+		String idReserva = idReservaEnviada();
+		verify(productoClient).anularReserva(idReserva);
+		assertEquals(2, respuesta.resultados().stream().filter(r -> !r.exitoso()).count());
+	}
+
+	@Test
+	void cargaMasivaReservaPedidoPorPedidoSiElBloqueSeRechaza() {
+		when(mapper.precargar(any())).thenReturn(Map.of());
+		when(mapper.requestToEntity(any(PedidosRequest.class), any())).thenAnswer(i -> new Pedido());
+		when(repository.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+		doThrow(conflicto()).doNothing().doThrow(conflicto()).when(productoClient).reservarStock(any());
+
+		CargaMasivaResponse respuesta = service.insertarMasivo(List.of(request(1L, 2), request(2L, 3)));
+
+		verify(productoClient, times(3)).reservarStock(any());
+		verify(productoClient, never()).anularReserva(anyString());
+		assertEquals(1, respuesta.resultados().stream().filter(CargaMasivaResponse.Resultado::exitoso).count());
+	}
+
+	@Test
+	void actualizarReservaYDevuelveSoloLaDiferencia() {
+		Pedido pedido = pedido(7L, Map.of(1L, 2, 2L, 5));
+		when(repository.findConProductosById(7L)).thenReturn(Optional.of(pedido));
+		when(entityManager.find(Pedido.class, 7L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(pedido);
+		when(repository.save(pedido)).thenReturn(pedido);
+
+		service.actualizar(new PedidosRequest(1L, "CREADO", List.of(
+				new PedidosRequest.ProductoData(1L, 10, 10.5),
+				new PedidosRequest.ProductoData(2L, 1, 10.5))), 7L);
+
+		ArgumentCaptor<MovimientoStockRequest> reserva = ArgumentCaptor.forClass(MovimientoStockRequest.class);
+		verify(productoClient).reservarStock(reserva.capture());
+		assertEquals(List.of(new StockRequest(1L, 8)), reserva.getValue().lineas());
+		ArgumentCaptor<MovimientoStockRequest> devolucion = ArgumentCaptor.forClass(MovimientoStockRequest.class);
+		verify(productoClient).liberarStock(devolucion.capture());
+		assertEquals(List.of(new StockRequest(2L, 4)), devolucion.getValue().lineas());
+	}
+
+	@Test
+	void actualizarAnulaLaDiferenciaSiNoSeGuarda() {
+		Pedido pedido = pedido(7L, Map.of(1L, 2));
+		when(repository.findConProductosById(7L)).thenReturn(Optional.of(pedido));
+		when(repository.save(pedido)).thenThrow(new IllegalStateException("ORA-00001"));
+
+		assertThrows(IllegalStateException.class, () -> service.actualizar(request(1L, 5), 7L));
+
+		String idReserva = idReservaEnviada();
+		verify(productoClient).anularReserva(idReserva);
+		verify(productoClient, never()).liberarStock(any());
+	}
+
+	@Test
+	void eliminarDevuelveLasLineas() {
+		Pedido pedido = pedido(7L, Map.of(1L, 2, 2L, 5));
+		when(repository.findConProductosById(7L)).thenReturn(Optional.of(pedido));
+
+		service.eliminar(7L);
+
+		ArgumentCaptor<MovimientoStockRequest> devolucion = ArgumentCaptor.forClass(MovimientoStockRequest.class);
+		verify(repository).deleteById(7L);
+		verify(productoClient).liberarStock(devolucion.capture());
+		assertEquals(Set.of(new StockRequest(1L, 2), new StockRequest(2L, 5)), Set.copyOf(devolucion.getValue().lineas()));
+		assertFalse(devolucion.getValue().idOperacion().isBlank());
+	}
+
+	// La anulación debe usar el mismo id que la reserva enviada
+	private String idReservaEnviada() {
+		ArgumentCaptor<MovimientoStockRequest> reserva = ArgumentCaptor.forClass(MovimientoStockRequest.class);
+		verify(productoClient, times(1)).reservarStock(reserva.capture());
+		return reserva.getValue().idOperacion();
+	}
+
+	private static PedidosRequest request(Long idProducto, int cantidad) {
+		return new PedidosRequest(1L, "CREADO", List.of(new PedidosRequest.ProductoData(idProducto, cantidad, 10.5)));
+	}
+
+	private static Pedido pedido(Long id, Map<Long, Integer> cantidades) {
+		Pedido pedido = new Pedido();
+		pedido.setId(id);
+		pedido.setIdCliente(1L);
+		cantidades.forEach((idProducto, cantidad) -> {
+			ProductoPedido pp = new ProductoPedido();
+			pp.setPedido(pedido);
+			pp.setIdProducto(idProducto);
+			pp.setCantidad(cantidad);
+			pp.setPrecio(10.5);
+			pedido.getProductos().add(pp);
+		});
+		return pedido;
+	}
+
+	private static FeignException.Conflict conflicto() {
+		Request request = Request.create(Request.HttpMethod.POST, "/stock/reserve", Map.of(), null,
+				StandardCharsets.UTF_8, null);
+		return new FeignException.Conflict("Stock insuficiente", request, null, Map.of());
+	}
+}
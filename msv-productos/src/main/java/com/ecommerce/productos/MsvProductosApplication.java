@@ -3,9 +3,11 @@ package com.ecommerce.productos;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 
 @EnableFeignClients
+@EnableAsync
 @SpringBootApplication(scanBasePackages  = {"com.ecommerce.productos", "com.ecommerce.commons" })
 public class MsvProductosApplication {
 
@@ -1,8 +1,17 @@
 package com.ecommerce.productos.controllers;
 
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.validation.Valid;
+
 import com.ecommerce.commons.controllers.CommonController;
+import com.ecommerce.commons.dto.MovimientoStockRequest;
 import com.ecommerce.commons.dto.ProductoRequest;
 import com.ecommerce.commons.dto.ProductoResponse;
 import com.ecommerce.productos.services.ProductoService;
@@ -15,6 +24,44 @@ public class ProductoController extends CommonController<ProductoRequest, Produc
 		super(service);
 	}
 
-	
+	/**
+	 * Consulta masiva de productos por id (usada por msv-pedidos para enriquecer
+	 * los pedidos con una sola llamada en lugar de una por cada línea).
+	 * Se recibe en el cuerpo para no depender del largo máximo de la URL.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity<List<ProductoResponse>> obtenerPorIds(@RequestBody List<Long> ids) {
+		return ResponseEntity.ok(service.obtenerPorIds(ids));
+	}
+
+	/**
+	 * Reserva (descuenta) el stock de las líneas de un pedido; todas o ninguna.
+	 * Responde 409 si algún producto no tiene stock suficiente o si la reserva ya se anuló.
+	 * Un reintento con el mismo idOperacion responde 204 sin volver a descontar.
+	 * Uso interno de msv-pedidos: el api-gateway no expone /stock.
+	 */
+	@PostMapping("/stock/reserve")
+	public ResponseEntity<Void> reservarStock(@RequestBody @Valid MovimientoStockRequest reserva) {
+		service.reservarStock(reserva);
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Deshace una reserva (o la anula de antemano si aún no llegó).
+	 */
+	@PostMapping("/stock/reserve/{idOperacion}/cancel")
+	public ResponseEntity<Void> anularReserva(@PathVariable String idOperacion) {
+		service.anularReserva(idOperacion);
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Devuelve al stock unidades de un pedido modificado o eliminado.
+	 */
+	@PostMapping("/stock/release")
+	public ResponseEntity<Void> liberarStock(@RequestBody @Valid MovimientoStockRequest devolucion) {
+		service.liberarStock(devolucion);
+		return ResponseEntity.noContent().build();
+	}
 	
 }
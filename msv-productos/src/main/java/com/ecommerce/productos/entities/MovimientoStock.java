@@ -0,0 +1,73 @@
+package com.ecommerce.productos.entities;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.persistence.*;
+
+/**
+ * Registro de las operaciones de stock ya aplicadas, por id de operación (lo genera
+ * msv-pedidos). Hace idempotentes las reservas y devoluciones y permite anular una
+ * reserva cuya respuesta no llegó.
+ */
+@Entity
+@Table(name = "MOVIMIENTOS_STOCK")
+public class MovimientoStock {
+
+	public enum Tipo {
+		RESERVA,
+		DEVOLUCION,
+		// Reserva deshecha, o anulada antes de llegar (entonces sin líneas)
+		ANULADA
+	}
+
+	@Id
+	@Column(name = "ID_OPERACION", length = 36)
+	private String id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "TIPO", nullable = false, length = 10)
+	private Tipo tipo;
+
+	@Column(name = "FECHA", nullable = false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date fecha;
+
+	// Cantidad por producto
+	@ElementCollection
+	@CollectionTable(name = "MOVIMIENTOS_STOCK_LINEAS", joinColumns = @JoinColumn(name = "ID_OPERACION"))
+	@MapKeyColumn(name = "ID_PRODUCTO")
+	@Column(name = "CANTIDAD", nullable = false)
+	private Map<Long, Integer> lineas = new TreeMap<>();
+
+	protected MovimientoStock() {
+	}
+
+	public MovimientoStock(String id, Tipo tipo, Map<Long, Integer> lineas) {
+		this.id = id;
+		this.tipo = tipo;
+		this.fecha = new Date();
+		this.lineas = new TreeMap<>(lineas);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(Tipo tipo) {
+		this.tipo = tipo;
+	}
+
+	public Date getFecha() {
+		return fecha;
+	}
+
+	public Map<Long, Integer> getLineas() {
+		return lineas;
+	}
+}
@@ -10,7 +10,7 @@ public class Producto {
 
 	@Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PRODUCTOS_SEQ")
-    @SequenceGenerator(name = "PRODUCTOS_SEQ", sequenceName = "PRODUCTOS_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "PRODUCTOS_SEQ", sequenceName = "PRODUCTOS_SEQ", allocationSize = 50)
     @Column(name = "ID_PRODUCTOS")
 	private Long id;
 	
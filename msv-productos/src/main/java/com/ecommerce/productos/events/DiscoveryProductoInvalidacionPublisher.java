@@ -0,0 +1,46 @@
+package com.ecommerce.productos.events;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Publica la invalidación a todas las instancias de msv-pedidos registradas en Eureka
+ * (no solo a una, como haría el balanceo de Feign), llamando a DELETE /cache/productos/{id}.
+ * Si una instancia no responde solo se registra: su entrada expirará por TTL.
+ */
+@Component
+public class DiscoveryProductoInvalidacionPublisher implements ProductoInvalidacionPublisher {
+
+	private static final Logger LOGGER = Logger.getLogger(DiscoveryProductoInvalidacionPublisher.class.getName());
+
+	private static final String SERVICIO_PEDIDOS = "msv-pedidos";
+
+	private final DiscoveryClient discoveryClient;
+
+	private final RestClient restClient;
+
+	public DiscoveryProductoInvalidacionPublisher(DiscoveryClient discoveryClient) {
+		this.discoveryClient = discoveryClient;
+		this.restClient = RestClient.create();
+	}
+
+	@Override
+	public void publicar(Long idProducto) {
+		for (ServiceInstance instancia : discoveryClient.getInstances(SERVICIO_PEDIDOS)) {
+			try {
+				restClient.delete()
+						.uri(instancia.getUri() + "/cache/productos/{id}", idProducto)
+						.retrieve()
+						.toBodilessEntity();
+			} catch (Exception e) {
+				LOGGER.log(Level.WARNING, "No se pudo invalidar el producto " + idProducto
+						+ " en " + instancia.getUri() + ": " + e.getMessage());
+			}
+		}
+	}
+}
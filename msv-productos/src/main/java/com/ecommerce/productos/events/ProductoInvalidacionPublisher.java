@@ -0,0 +1,11 @@
+package com.ecommerce.productos.events;
+
+/**
+ * Canal por el que se avisa a los consumidores del catálogo (msv-pedidos)
+ * que deben descartar un producto de su caché local.
+ * Se define como interfaz para poder sustituirlo por un broker o por un stub local.
+ */
+public interface ProductoInvalidacionPublisher {
+
+	void publicar(Long idProducto);
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.productos.events;
+
+/**
+ * Evento interno que se publica cuando un producto se actualiza o se elimina.
+ */
+public record ProductoModificadoEvent(Long idProducto) {
+
+}
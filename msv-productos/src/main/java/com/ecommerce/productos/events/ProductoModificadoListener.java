@@ -0,0 +1,25 @@
+package com.ecommerce.productos.events;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Propaga la invalidación una vez confirmada la transacción (o de inmediato si no hay
+ * transacción activa) y en segundo plano, para no retrasar la respuesta al cliente.
+ */
+@Component
+public class ProductoModificadoListener {
+
+	private final ProductoInvalidacionPublisher publisher;
+
+	public ProductoModificadoListener(ProductoInvalidacionPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	@Async
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductoModificado(ProductoModificadoEvent event) {
+		publisher.publicar(event.idProducto());
+	}
+}
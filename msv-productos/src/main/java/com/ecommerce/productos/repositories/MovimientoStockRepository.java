@@ -0,0 +1,22 @@
+package com.ecommerce.productos.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.productos.entities.MovimientoStock;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface MovimientoStockRepository extends JpaRepository<MovimientoStock, String> {
+
+	// Bloquea la operación mientras se anula para que dos anulaciones no devuelvan el stock dos veces
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT m FROM MovimientoStock m WHERE m.id = :id")
+	Optional<MovimientoStock> findParaActualizar(@Param("id") String id);
+}
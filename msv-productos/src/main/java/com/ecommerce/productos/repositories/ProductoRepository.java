@@ -1,11 +1,44 @@
 package com.ecommerce.productos.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.productos.entities.Producto;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long>{
 
+	// Paginación por cursor: recorre el índice de la PK en lugar de usar OFFSET
+	@Query(nativeQuery = true, value = "SELECT * FROM PRODUCTOS WHERE ID_PRODUCTOS > :after ORDER BY ID_PRODUCTOS FETCH FIRST :limite ROWS ONLY")
+	List<Producto> findSiguientes(@Param("after") Long after, @Param("limite") int limite);
+
+	@Query(nativeQuery = true, value = "SELECT * FROM PRODUCTOS WHERE ID_PRODUCTOS < :before ORDER BY ID_PRODUCTOS DESC FETCH FIRST :limite ROWS ONLY")
+	List<Producto> findAnteriores(@Param("before") Long before, @Param("limite") int limite);
+
+	/**
+	 * Descuenta stock solo si alcanza: la comprobación y la resta son una sola sentencia,
+	 * por lo que dos pedidos concurrentes no pueden vender la misma unidad.
+	 * @return 1 si se descontó, 0 si no hay stock suficiente (o el producto no existe)
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Producto p SET p.stock = p.stock - :cantidad WHERE p.id = :id AND p.stock >= :cantidad")
+	int descontarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Producto p SET p.stock = p.stock + :cantidad WHERE p.id = :id")
+	int devolverStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+	// Bloquea la fila mientras se reemplazan sus datos para no pisar reservas concurrentes
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT p FROM Producto p WHERE p.id = :id")
+	Optional<Producto> findParaActualizar(@Param("id") Long id);
 }
@@ -1,9 +1,40 @@
 package com.ecommerce.productos.services;
 
+import java.util.List;
+
 import com.ecommerce.commons.dto.ProductoRequest;
 import com.ecommerce.commons.dto.ProductoResponse;
+import com.ecommerce.commons.dto.MovimientoStockRequest;
 import com.ecommerce.commons.services.CommonService;
 
 public interface ProductoService extends CommonService<ProductoRequest, ProductoResponse>{
 
+	/**
+	 * Obtiene en una sola consulta todos los productos cuyos ids se indican.
+	 * Los ids que no existan simplemente no aparecen en la lista devuelta.
+	 */
+	List<ProductoResponse> obtenerPorIds(List<Long> ids);
+
+	/**
+	 * Descuenta el stock de todas las líneas en una sola transacción: o se reservan
+	 * todas o ninguna. Un reintento con el mismo idOperacion no vuelve a descontar.
+	 * @throws EntidadRelacionadaException si algún producto no tiene stock suficiente
+	 *         o si la reserva ya fue anulada
+	 * @throws java.util.NoSuchElementException si algún producto no existe
+	 */
+	void reservarStock(MovimientoStockRequest reserva);
+
+	/**
+	 * Deshace una reserva (compensación cuando el pedido no se pudo guardar o la respuesta
+	 * de la reserva no llegó). Si la reserva aún no se aplicó, queda anulada de antemano
+	 * y no se aplicará. Anular dos veces no tiene efecto.
+	 */
+	void anularReserva(String idOperacion);
+
+	/**
+	 * Devuelve al stock unidades de un pedido modificado o eliminado. Un reintento con
+	 * el mismo idOperacion no vuelve a devolver.
+	 */
+	void liberarStock(MovimientoStockRequest devolucion);
+
 }
@@ -1,16 +1,29 @@
 package com.ecommerce.productos.services;
 
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ecommerce.commons.dto.MovimientoStockRequest;
+import com.ecommerce.commons.dto.PaginaResponse;
 import com.ecommerce.commons.dto.ProductoRequest;
 import com.ecommerce.commons.dto.ProductoResponse;
+import com.ecommerce.commons.dto.StockRequest;
 import com.ecommerce.commons.exceptions.EntidadRelacionadaException;
 import com.ecommerce.productos.clients.PedidoClient;
+import com.ecommerce.productos.entities.MovimientoStock;
 import com.ecommerce.productos.entities.Producto;
+import com.ecommerce.productos.events.ProductoModificadoEvent;
 import com.ecommerce.productos.mappers.ProductoMapper;
+import com.ecommerce.productos.repositories.MovimientoStockRepository;
 import com.ecommerce.productos.repositories.ProductoRepository;
 
 @Service
@@ -22,13 +35,18 @@ public class ProductoServiceImpl  implements ProductoService{
 	
 	private final PedidoClient pedidoClient;
 
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final MovimientoStockRepository movimientos;
 	
-	
-	public ProductoServiceImpl(ProductoRepository repository, ProductoMapper mapper, PedidoClient pedidoClient) {
+	public ProductoServiceImpl(ProductoRepository repository, ProductoMapper mapper, PedidoClient pedidoClient,
+			ApplicationEventPublisher eventPublisher, MovimientoStockRepository movimientos) {
 		super();
 		this.repository = repository;
 		this.mapper = mapper;
 		this.pedidoClient = pedidoClient;
+		this.eventPublisher = eventPublisher;
+		this.movimientos = movimientos;
 	}
 
 	@Override
@@ -38,12 +56,39 @@ public class ProductoServiceImpl  implements ProductoService{
 				.map(mapper::entityToResponse).toList();
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaResponse<ProductoResponse> listarPorCursor(Long after, int limite, boolean descendente) {
+		// Se pide una fila extra para saber si existe una página siguiente
+		List<Producto> filas = descendente
+				? repository.findAnteriores(after != null ? after : Long.MAX_VALUE, limite + 1)
+				: repository.findSiguientes(after != null ? after : 0L, limite + 1);
+		return PaginaResponse.deCursor(filas, limite, Producto::getId,
+				pagina -> pagina.stream().map(mapper::entityToResponse).toList());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaResponse<ProductoResponse> listarPorPagina(int pagina, int limite, boolean descendente) {
+		Page<Producto> page = repository.findAll(PageRequest.of(pagina, limite,
+				Sort.by(descendente ? Sort.Direction.DESC : Sort.Direction.ASC, "id")));
+		return PaginaResponse.dePagina(page.getContent().stream().map(mapper::entityToResponse).toList(),
+				pagina, limite, page.getTotalElements(), page.hasNext());
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public ProductoResponse obtenerPorId(Long id) {
 		return mapper.entityToResponse(repository.findById(id).orElseThrow());
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<ProductoResponse> obtenerPorIds(List<Long> ids) {
+		return repository.findAllById(ids).stream()
+				.map(mapper::entityToResponse).toList();
+	}
+
 	@Override
 	@Transactional
 	public ProductoResponse insertar(ProductoRequest request) {
@@ -52,14 +97,85 @@ public class ProductoServiceImpl  implements ProductoService{
 	}
 
 	@Override
+	@Transactional
 	public ProductoResponse actualizar(ProductoRequest request, Long id) {
-		Producto producto = repository.findById(id).orElseThrow();
+		// Lectura con bloqueo: las reservas concurrentes esperan a que termine esta transacción
+		Producto producto = repository.findParaActualizar(id).orElseThrow();
 		producto.setNombre(request.nombre());
 		producto.setDescripcion(request.descripcion());
 		producto.setPrecio(request.precio());
 		producto.setStock(request.stock());
 		
-		return mapper.entityToResponse(repository.save(producto));
+		ProductoResponse response = mapper.entityToResponse(repository.save(producto));
+		eventPublisher.publishEvent(new ProductoModificadoEvent(id));
+		return response;
+	}
+
+	@Override
+	@Transactional
+	public void reservarStock(MovimientoStockRequest reserva) {
+		MovimientoStock previo = movimientos.findById(reserva.idOperacion()).orElse(null);
+		if (previo != null) {
+			if (previo.getTipo() != MovimientoStock.Tipo.RESERVA) {
+				throw new EntidadRelacionadaException("La reserva " + reserva.idOperacion() + " fue anulada");
+			}
+			// Reintento de una reserva ya aplicada
+			return;
+		}
+		Map<Long, Integer> porProducto = agrupar(reserva.lineas());
+		// Se registra antes de descontar: una reserva o anulación concurrente con el mismo id
+		// espera en la PK a que esta confirme y después falla en lugar de aplicarse dos veces
+		movimientos.saveAndFlush(new MovimientoStock(reserva.idOperacion(), MovimientoStock.Tipo.RESERVA, porProducto));
+		// El stock no se guarda en la foto de los pedidos, así que no se publica invalidación
+		for (Map.Entry<Long, Integer> linea : porProducto.entrySet()) {
+			if (repository.descontarStock(linea.getKey(), linea.getValue()) == 0) {
+				if (!repository.existsById(linea.getKey())) {
+					throw new NoSuchElementException("No se encontró el producto " + linea.getKey());
+				}
+				// La excepción revierte también las líneas ya descontadas y el registro
+				throw new EntidadRelacionadaException("Stock insuficiente para el producto " + linea.getKey());
+			}
+		}
+	}
+
+	@Override
+	@Transactional
+	public void anularReserva(String idOperacion) {
+		MovimientoStock movimiento = movimientos.findParaActualizar(idOperacion).orElse(null);
+		if (movimiento == null) {
+			// La reserva no llegó (o llegará tarde): se registra anulada para que no se aplique
+			movimientos.saveAndFlush(new MovimientoStock(idOperacion, MovimientoStock.Tipo.ANULADA, Map.of()));
+			return;
+		}
+		if (movimiento.getTipo() != MovimientoStock.Tipo.RESERVA) {
+			return;
+		}
+		// Se copian antes de devolver: las actualizaciones de stock limpian el contexto de persistencia
+		Map<Long, Integer> lineas = new TreeMap<>(movimiento.getLineas());
+		movimiento.setTipo(MovimientoStock.Tipo.ANULADA);
+		movimientos.saveAndFlush(movimiento);
+		lineas.forEach(repository::devolverStock);
+	}
+
+	@Override
+	@Transactional
+	public void liberarStock(MovimientoStockRequest devolucion) {
+		if (movimientos.existsById(devolucion.idOperacion())) {
+			return;
+		}
+		Map<Long, Integer> porProducto = agrupar(devolucion.lineas());
+		movimientos.saveAndFlush(new MovimientoStock(devolucion.idOperacion(), MovimientoStock.Tipo.DEVOLUCION, porProducto));
+		porProducto.forEach(repository::devolverStock);
+	}
+
+	/**
+	 * Suma las cantidades por producto y las ordena por id: todas las transacciones
+	 * bloquean las filas en el mismo orden y así no se producen interbloqueos.
+	 */
+	private static Map<Long, Integer> agrupar(List<StockRequest> lineas) {
+		Map<Long, Integer> porProducto = new TreeMap<>();
+		lineas.forEach(linea -> porProducto.merge(linea.idProducto(), linea.cantidad(), Integer::sum));
+		return porProducto;
 	}
 
 	@Override
@@ -73,6 +189,7 @@ public class ProductoServiceImpl  implements ProductoService{
 			
 		}
 		repository.deleteById(id);
+		eventPublisher.publishEvent(new ProductoModificadoEvent(id));
 		return mapper.entityToResponse(producto);
 	}
 	
@@ -0,0 +1,11 @@
+-- Esquema de msv-productos anterior a las migraciones (las bases existentes se marcan como V1).
+CREATE SEQUENCE PRODUCTOS_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE TABLE PRODUCTOS (
+    ID_PRODUCTOS  NUMBER(19)      NOT NULL,
+    NOMBRE        VARCHAR2(30),
+    DESCRIPCION   VARCHAR2(150),
+    PRECIO        NUMBER(12, 2),
+    STOCK         NUMBER(10),
+    CONSTRAINT PK_PRODUCTOS PRIMARY KEY (ID_PRODUCTOS)
+);
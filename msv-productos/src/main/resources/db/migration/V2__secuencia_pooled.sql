@@ -0,0 +1,2 @@
+-- Producto reserva 50 ids por llamada a la secuencia (allocationSize = 50, optimizador pooled).
+ALTER SEQUENCE PRODUCTOS_SEQ INCREMENT BY 50 CACHE 20;
@@ -0,0 +1,20 @@
+-- Operaciones de stock aplicadas por id (MovimientoStock). msv-pedidos envía un id por reserva
+-- o devolución: un reintento con el mismo id no vuelve a descontar ni a devolver, y una reserva
+-- sin respuesta se puede anular por id aunque llegue después de la anulación.
+-- Solo hace falta conservar las operaciones recientes; las antiguas se pueden purgar por FECHA.
+CREATE TABLE MOVIMIENTOS_STOCK (
+    ID_OPERACION  VARCHAR2(36)    NOT NULL,
+    TIPO          VARCHAR2(10)    NOT NULL,
+    FECHA         TIMESTAMP       NOT NULL,
+    CONSTRAINT PK_MOVIMIENTOS_STOCK PRIMARY KEY (ID_OPERACION)
+);
+
+CREATE TABLE MOVIMIENTOS_STOCK_LINEAS (
+    ID_OPERACION  VARCHAR2(36)    NOT NULL,
+    ID_PRODUCTO   NUMBER(19)      NOT NULL,
+    CANTIDAD      NUMBER(10)      NOT NULL,
+    CONSTRAINT PK_MOVIMIENTOS_STOCK_LINEAS PRIMARY KEY (ID_OPERACION, ID_PRODUCTO),
+    CONSTRAINT FK_MOVIMIENTOS_STOCK_LINEAS FOREIGN KEY (ID_OPERACION) REFERENCES MOVIMIENTOS_STOCK (ID_OPERACION)
+);
+
+CREATE INDEX IDX_MOVIMIENTOS_STOCK_FECHA ON MOVIMIENTOS_STOCK (FECHA);
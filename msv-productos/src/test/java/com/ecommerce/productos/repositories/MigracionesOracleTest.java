@@ -0,0 +1,102 @@
+package com.ecommerce.productos.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.oracle.OracleContainer;
+
+import com.ecommerce.productos.entities.MovimientoStock;
+import com.ecommerce.productos.entities.Producto;
+
+/**
+ * Aplica las migraciones de Flyway sobre un Oracle Free en contenedor y comprueba que las
+ * entidades trabajan con el esquema resultante y que la secuencia avanza lo mismo que
+ * allocationSize. Se omite si no hay Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MigracionesOracleTest {
+
+	@Container
+	@ServiceConnection
+	static OracleContainer oracle = new OracleContainer("gvenzl/oracle-free:23-slim-faststart");
+
+	// Configuración mínima: evita arrancar MsvProductosApplication (Feign, Eureka)
+	@Configuration
+	@EntityScan(basePackageClasses = Producto.class)
+	@EnableJpaRepositories(basePackageClasses = ProductoRepository.class)
+	static class Config {
+	}
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductoRepository repository;
+
+	@Autowired
+	private MovimientoStockRepository movimientos;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void aplicaTodasLasMigraciones() {
+		assertEquals("3", flyway.info().current().getVersion().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+	}
+
+	@Test
+	void secuenciaCoincideConAllocationSize() {
+		assertEquals(50, incremento("PRODUCTOS_SEQ"));
+	}
+
+	@Test
+	void guardaYReservaStock() {
+		Producto producto = new Producto();
+		producto.setNombre("Producto");
+		producto.setDescripcion("Producto de prueba");
+		producto.setPrecio(10.5);
+		producto.setStock(10);
+		Long id = entityManager.persistFlushFind(producto).getId();
+
+		assertEquals(1, repository.descontarStock(id, 4));
+		assertEquals(0, repository.descontarStock(id, 7));
+		entityManager.clear();
+		assertEquals(6, repository.findById(id).orElseThrow().getStock());
+		assertTrue(repository.findSiguientes(0L, 10).stream().anyMatch(p -> p.getId().equals(id)));
+	}
+
+	@Test
+	void registraMovimientosDeStock() {
+		entityManager.persistAndFlush(new MovimientoStock("reserva-1", MovimientoStock.Tipo.RESERVA, Map.of(1L, 2, 3L, 4)));
+		entityManager.clear();
+
+		MovimientoStock leido = movimientos.findParaActualizar("reserva-1").orElseThrow();
+		assertEquals(MovimientoStock.Tipo.RESERVA, leido.getTipo());
+		assertEquals(Map.of(1L, 2, 3L, 4), leido.getLineas());
+	}
+
+	private int incremento(String secuencia) {
+		return jdbcTemplate.queryForObject(
+				"SELECT INCREMENT_BY FROM USER_SEQUENCES WHERE SEQUENCE_NAME = ?", Integer.class, secuencia);
+	}
+}
@@ -0,0 +1,185 @@
+package com.ecommerce.productos.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.commons.dto.MovimientoStockRequest;
+import com.ecommerce.commons.dto.StockRequest;
+import com.ecommerce.commons.exceptions.EntidadRelacionadaException;
+import com.ecommerce.productos.clients.PedidoClient;
+import com.ecommerce.productos.entities.Producto;
+import com.ecommerce.productos.mappers.ProductoMapper;
+import com.ecommerce.productos.repositories.MovimientoStockRepository;
+import com.ecommerce.productos.repositories.ProductoRepository;
+
+/**
+ * Muchos pedidos concurrentes sobre el mismo producto: nunca se vende más stock del que hay.
+ * Sin transacción de prueba para que cada reserva confirme en su propia transacción.
+ */
+@DataJpaTest(properties = {
+		// El esquema lo crea Hibernate; las migraciones de Oracle se prueban en MigracionesOracleTest
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservaStockConcurrenteTest {
+
+	private static final int STOCK_INICIAL = 50;
+	private static final int PEDIDOS = 300;
+
+	// Configuración mínima: evita arrancar MsvProductosApplication (Feign, Eureka)
+	@Configuration
+	@EntityScan(basePackageClasses = Producto.class)
+	@EnableJpaRepositories(basePackageClasses = ProductoRepository.class)
+	@Import({ ProductoServiceImpl.class, ProductoMapper.class })
+	static class Config {
+	}
+
+	@MockitoBean
+	private PedidoClient pedidoClient;
+
+	@Autowired
+	private ProductoService service;
+
+	@Autowired
+	private ProductoRepository repository;
+
+	@Autowired
+	private MovimientoStockRepository movimientos;
+
+	@AfterEach
+	void limpiar() {
+		movimientos.deleteAll();
+		repository.deleteAll();
+	}
+
+	@Test
+	void reservasConcurrentesNoSobrevenden() throws Exception {
+		Long id = crearProducto(STOCK_INICIAL);
+		AtomicInteger reservadas = new AtomicInteger();
+		AtomicInteger rechazadas = new AtomicInteger();
+		CountDownLatch salida = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		List<Future<?>> tareas = new ArrayList<>();
+		for (int i = 0; i < PEDIDOS; i++) {
+			tareas.add(executor.submit(() -> {
+				salida.await();
+				try {
+					service.reservarStock(movimiento(new StockRequest(id, 1)));
+					reservadas.incrementAndGet();
+				} catch (EntidadRelacionadaException e) {
+					rechazadas.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		salida.countDown();
+		for (Future<?> tarea : tareas) {
+			tarea.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertEquals(STOCK_INICIAL, reservadas.get());
+		assertEquals(PEDIDOS - STOCK_INICIAL, rechazadas.get());
+		assertEquals(0, repository.findById(id).orElseThrow().getStock());
+	}
+
+	@Test
+	void reservaConUnaLineaSinStockNoDescuentaNinguna() {
+		Long conStock = crearProducto(10);
+		Long sinStock = crearProducto(1);
+
+		assertThrows(EntidadRelacionadaException.class, () -> service.reservarStock(movimiento(
+				new StockRequest(conStock, 5),
+				new StockRequest(sinStock, 2))));
+
+		assertEquals(10, repository.findById(conStock).orElseThrow().getStock());
+		assertEquals(1, repository.findById(sinStock).orElseThrow().getStock());
+	}
+
+	@Test
+	void reintentoConElMismoIdNoDescuentaDosVeces() {
+		Long id = crearProducto(10);
+		MovimientoStockRequest reserva = movimiento(new StockRequest(id, 4), new StockRequest(id, 3));
+
+		service.reservarStock(reserva);
+		service.reservarStock(reserva);
+
+		assertEquals(3, stock(id));
+	}
+
+	@Test
+	void anularDevuelveLaReservaUnaSolaVez() {
+		Long id = crearProducto(10);
+		MovimientoStockRequest reserva = movimiento(new StockRequest(id, 7));
+		service.reservarStock(reserva);
+
+		service.anularReserva(reserva.idOperacion());
+		service.anularReserva(reserva.idOperacion());
+
+		assertEquals(10, stock(id));
+	}
+
+	@Test
+	void reservaQueLlegaDespuesDeAnularseNoSeAplica() {
+		Long id = crearProducto(10);
+		MovimientoStockRequest reserva = movimiento(new StockRequest(id, 7));
+
+		service.anularReserva(reserva.idOperacion());
+
+		assertThrows(EntidadRelacionadaException.class, () -> service.reservarStock(reserva));
+		assertEquals(10, stock(id));
+	}
+
+	@Test
+	void liberarDevuelveUnaSolaVezPorOperacion() {
+		Long id = crearProducto(10);
+		service.reservarStock(movimiento(new StockRequest(id, 7)));
+		MovimientoStockRequest devolucion = movimiento(new StockRequest(id, 5));
+
+		service.liberarStock(devolucion);
+		service.liberarStock(devolucion);
+
+		assertEquals(8, stock(id));
+	}
+
+	private static MovimientoStockRequest movimiento(StockRequest... lineas) {
+		return new MovimientoStockRequest(UUID.randomUUID().toString(), List.of(lineas));
+	}
+
+	private int stock(Long id) {
+		return repository.findById(id).orElseThrow().getStock();
+	}
+
+	private Long crearProducto(int stock) {
+		Producto producto = new Producto();
+		producto.setNombre("Producto");
+		producto.setDescripcion("Producto de prueba");
+		producto.setPrecio(10.0);
+		producto.setStock(stock);
+		return repository.save(producto).getId();
+	}
+}